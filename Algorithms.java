@@ -8,235 +8,428 @@
  *  @version 8.25.2015
  */
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.LinkedList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
 public class Algorithms
 {
+    //Distance given to vertices that have not been reached
+    private static final long INFINITY = Long.MAX_VALUE / 4;
+    //Vertices a graph needs before splitting a max flow between threads pays off
+    private static final int PARALLEL_VERTICES = 50000;
+    //Density past which Dinic's algorithm is picked
+    private static final double DENSE = 0.25;
+    //Boykov-Kolmogorov is picked when the flow bound is at most V / SMALL_FLOW, and unit-capacity Dinic's when it is more
+    private static final int SMALL_FLOW = 64;
+    //and the diameter is at most SHORT_PATHS
+    private static final int SHORT_PATHS = 64;
+
     /*
      * Method that finds an augmenting path using a depth-first search.
-     * @param g is the graph to find an augmenting path in
+     * @param w is the workspace with the residual graph and buffers
      * @param start is the vertex to start from
-     * @param l is the list that holds the vertices used in the augmenting path
-     * @return a list of the vertices on the augmenting path
-     */
-    private List<Integer> dfsAugmentingPath(Graph g, int start, List<Integer> l)
-    {
-        ArrayList<Integer> s = new ArrayList<Integer>();
-        Boolean[] visited = new Boolean[g.order()];
-        int[] parents = new int[g.order()];
-        for(int i = 0; i < visited.length; i++){
-            visited[i] = false;
-            parents[i] = -1;
-        }
-        int[][] edgeMatrix = g.getMatrix();
-        ArrayList<LinkedList<Integer>> list = g.getList();
-        int endVertex = 0;
-        visited[start] = true;
-        s.add(endVertex);
-        do
-        {
-            endVertex = (int) s.remove(s.size()-1);
-            visited[endVertex] = true;
-            for(int i = 0; i < list.get(endVertex).size(); i++)
-            {
-                if(!visited[list.get(endVertex).get(i)])
-                {
-                    parents[list.get(endVertex).get(i)] = endVertex;
-                    s.add(list.get(endVertex).get(i));
-                    if(list.get(endVertex).get(i) == g.order() - 1)
+     * @param end is the vertex to find a path to
+     * @param delta is the smallest residual capacity an arc may have to be used
+     * @return whether a path to the end vertex was found
+     */
+    private boolean dfsAugmentingPath(FlowWorkspace w, int start, int end, int delta)
+    {
+        ResidualGraph r = w.getResidual();
+        int[] parentArcs = w.getParentArcs();
+        int[] s = w.getQueue();
+        int top = 0;
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        w.startSearch();
+        w.visit(start);
+        s[top++] = start;
+        while(top != 0)
+        {
+            int endVertex = s[--top];
+            for(int a = offsets[endVertex]; a < offsets[endVertex + 1]; a++)
+            {
+                int next = targets[a];
+                if(r.residual(a) >= delta && !w.isVisited(next))
+                {
+                    w.visit(next);
+                    parentArcs[next] = a;
+                    s[top++] = next;
+                    if(next == end)
                     {
-                        int temp = g.order() -1;
-                        while(temp != -1)
-                        {
-                            l.add(temp);
-                            temp = parents[temp];
-                        }
-                        Collections.reverse(l);
-                        return l;
+                        return true;
                     }
                 }
             }
         }
-        while(!s.isEmpty());
-        return l;
+        return false;
     }
 
     /*
-     * Method that finds an augmenting path using a breadth-first search.
-     * @param g is the graph to find an augmenting path in
+     * Method that finds a shortest augmenting path with a breadth-first
+     * search from both ends.  The source side follows arcs with residual
+     * capacity out of each vertex.  The sink side follows them into each
+     * vertex, which are the mates of the arcs in the vertex's own row, so
+     * no separate reverse index is needed.  The smaller frontier is grown
+     * by a whole layer at a time, and the shortest path through any arc
+     * joining the two sides is kept, so the path is as short as the one a
+     * search from the source alone would find.
+     * @param w is the workspace with the residual graph and buffers
      * @param start is the vertex to start from
-     * @param l is the list that holds the vertices used in the augmenting path
-     * @return the vertices on the augmenting path
+     * @param end is the vertex to find a path to
+     * @return whether a path to the end vertex was found
      */
-    private List<Integer> bfsAugmentingPath(Graph g, int start, List<Integer> l)
+    private boolean bidirectionalAugmentingPath(FlowWorkspace w, int start, int end)
     {
-        LinkedList<Integer> q = new LinkedList<Integer>();
-        Boolean[] visited = new Boolean[g.order()];
-        int[] parents = new int[g.order()];
-        for(int i = 0; i < visited.length; i++){
-            visited[i] = false;
-            parents[i] = -1;
-        }
-        int[][] edgeMatrix = g.getMatrix();
-        ArrayList<LinkedList<Integer>> list = g.getList();
-        int endVertex = 0;
-        visited[start] = true;
-        q.add(endVertex);
-        while(q.size() != 0)
+        ResidualGraph r = w.getResidual();
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] reverse = r.getReverse();
+        int[] parentArcs = w.getParentArcs();
+        int[] childArcs = w.getChildArcs();
+        int[] depth = w.getLayers();
+        int[] q = w.getQueue();
+        int[] sinkQ = w.getSinkQueue();
+        int fromStart = w.startSearch();
+        int fromEnd = w.startSearch();
+        int head = 0;
+        int tail = 0;
+        int sinkHead = 0;
+        int sinkTail = 0;
+        w.mark(start, fromStart);
+        depth[start] = 0;
+        q[tail++] = start;
+        w.mark(end, fromEnd);
+        depth[end] = 0;
+        sinkQ[sinkTail++] = end;
+        int joinArc = -1;
+        int best = Integer.MAX_VALUE;
+        while(joinArc == -1 && head < tail && sinkHead < sinkTail)
         {
-            endVertex = (int) q.removeFirst();
-            for(int i = 0; i < list.get(endVertex).size(); i++)
+            if(tail - head <= sinkTail - sinkHead)
+            {
+                int layerEnd = tail;
+                while(head < layerEnd)
+                {
+                    int u = q[head++];
+                    for(int a = offsets[u]; a < offsets[u + 1]; a++)
+                    {
+                        int v = targets[a];
+                        if(r.residual(a) > 0)
+                        {
+                            if(w.getMark(v) == fromEnd && depth[u] + depth[v] + 1 < best)
+                            {
+                                best = depth[u] + depth[v] + 1;
+                                joinArc = a;
+                            }
+                            else if(w.getMark(v) != fromStart && w.getMark(v) != fromEnd)
+                            {
+                                w.mark(v, fromStart);
+                                depth[v] = depth[u] + 1;
+                                parentArcs[v] = a;
+                                q[tail++] = v;
+                            }
+                        }
+                    }
+                }
+            }
+            else
             {
-                if(!visited[list.get(endVertex).get(i)])
+                int layerEnd = sinkTail;
+                while(sinkHead < layerEnd)
                 {
-                    visited[list.get(endVertex).get(i)] = true;
-                    parents[list.get(endVertex).get(i)] = endVertex;
-                    q.add(list.get(endVertex).get(i));
-                    if(list.get(endVertex).get(i) == g.order() - 1)
+                    int u = sinkQ[sinkHead++];
+                    for(int b = offsets[u]; b < offsets[u + 1]; b++)
                     {
-                        int temp = g.order() -1;
-                        while(temp != -1)
+                        int v = targets[b];
+                        int a = reverse[b];
+                        if(r.residual(a) > 0)
                         {
-                            l.add(temp);
-                            temp = parents[temp];
+                            if(w.getMark(v) == fromStart && depth[u] + depth[v] + 1 < best)
+                            {
+                                best = depth[u] + depth[v] + 1;
+                                joinArc = a;
+                            }
+                            else if(w.getMark(v) != fromStart && w.getMark(v) != fromEnd)
+                            {
+                                w.mark(v, fromEnd);
+                                depth[v] = depth[u] + 1;
+                                childArcs[v] = a;
+                                sinkQ[sinkTail++] = v;
+                            }
                         }
-                        Collections.reverse(l);
-                        return l;
                     }
                 }
             }
         }
-        return l;
+        if(joinArc == -1)
+        {
+            return false;
+        }
+        //Link the sink's side into parentArcs so the path can be walked back from the end
+        int v = targets[joinArc];
+        parentArcs[v] = joinArc;
+        while(v != end)
+        {
+            int a = childArcs[v];
+            v = targets[a];
+            parentArcs[v] = a;
+        }
+        return true;
     }
 
     /*
      * Method that uses an augmenting path to find the quickest path to each vertex in the graph.
-     * @param g is the graph to find an augmenting path in
+     * The search is the parallel one kept in the workspace, and it stops
+     * after the layer the end vertex is on.
+     * @param w is the workspace with the residual graph and buffers
      * @param start is the vertex to start from
-     * @return an array of what layer that the vertices are on
-     */
-    private int[] bfsLayers(Graph g, int start)
-    {
-        LinkedList<Integer> q = new LinkedList<Integer>();
-        Boolean[] visited = new Boolean[g.order()];
-        int[] layers = new int[g.order()];
-        for(int i = 0; i < visited.length; i++){
-            visited[i] = false;
-            layers[i] = -1;
-        }
-        int[][] edgeMatrix = g.getMatrix();
-        ArrayList<LinkedList<Integer>> list = g.getList();
-        int endVertex = 0;
-        visited[start] = true;
-        q.add(endVertex);
-        layers[0] = 0;
-        int level = 1;
-        while(q.size() != 0)
-        {
-            endVertex = (int) q.removeFirst();
-            for(int i = 0; i < list.get(endVertex).size(); i++)
-            {
-                if(!visited[list.get(endVertex).get(i)])
-                {
-                    visited[list.get(endVertex).get(i)] = true;
-                    q.add(list.get(endVertex).get(i));
-                    layers[list.get(endVertex).get(i)] = layers[endVertex] + 1;
-                    if(list.get(endVertex).get(i) == g.order() - 1)
-                    {
-                        return layers;
-                    }
-                }
+     * @param end is the vertex the search stops at
+     * @return an array of what layer that the vertices are on, -1 if not reached
+     */
+    private int[] bfsLayers(FlowWorkspace w, int start, int end)
+    {
+        ParallelBFS bfs = w.getBFS();
+        bfs.clear();
+        bfs.search(start, w.getOpen(), true, end);
+        return bfs.getLevels();
+    }
+
+    /*
+     * Method that prints the result of a max flow the way every flow
+     * algorithm reports it: its value, the edges it takes and the edges of
+     * the min cut that proves it is a max flow.
+     * @param g is the graph the flow is in
+     * @param source is the vertex the flow starts from
+     * @param maxFlow is the value of the flow
+     * @return the flow and its min cut
+     */
+    private FlowResult report(Graph g, int source, int maxFlow)
+    {
+        FlowResult result = new FlowResult(g.getResidual(), source, maxFlow);
+        System.out.println("Optimal Flow: " + maxFlow);
+        g.printTaken();
+        printCutArcs(g.getResidual(), result);
+        return result;
+    }
+
+    /*
+     * Method that prints the edges of a min cut and their capacity.
+     * @param r is the residual graph the flow is in
+     * @param result is the flow with the cut
+     */
+    private void printCutArcs(ResidualGraph r, FlowResult result)
+    {
+        int[] targets = r.getTargets();
+        int[] reverse = r.getReverse();
+        int[] capacities = r.getCapacities();
+        System.out.println("Min cut edges and their capacity: ");
+        for(int a : result.getCutArcs())
+        {
+            System.out.println("(" + targets[reverse[a]] + ", " + targets[a] + "): " + capacities[a]);
+        }
+    }
+
+    /*
+     * Method that checks the source and sink of a flow and says why if they
+     * cannot be used.
+     * @param r is the residual graph the flow is in
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @return whether they are two different vertices of the graph
+     */
+    private boolean validTerminals(ResidualGraph r, int source, int sink)
+    {
+        if(source < 0 || sink < 0 || source >= r.order() || sink >= r.order() || source == sink)
+        {
+            System.out.println("The source and sink must be two different vertices from 0 to " + (r.order() - 1) + ".");
+            return false;
+        }
+        return true;
+    }
+
+    /*
+     * Method that lists the vertices on an augmenting path, for printing.
+     * @param r is the residual graph the path is in
+     * @param start is the first vertex of the path
+     * @param end is the last vertex of the path
+     * @param parentArcs holds the arc each vertex was reached through
+     * @return the vertices on the augmenting path
+     */
+    private List<Integer> pathVertices(ResidualGraph r, int start, int end, int[] parentArcs)
+    {
+        int[] targets = r.getTargets();
+        int[] reverse = r.getReverse();
+        List<Integer> l = new ArrayList<Integer>();
+        for(int v = end; v != start; v = targets[reverse[parentArcs[v]]])
+        {
+            l.add(v);
+        }
+        l.add(start);
+        Collections.reverse(l);
+        return l;
+    }
+
+    /*
+     * Method that finds the smallest residual capacity on an augmenting path.
+     * @param r is the residual graph the path is in
+     * @param start is the first vertex of the path
+     * @param end is the last vertex of the path
+     * @param parentArcs holds the arc each vertex was reached through
+     * @return the amount of flow the path can carry
+     */
+    private int bottleneck(ResidualGraph r, int start, int end, int[] parentArcs)
+    {
+        int[] targets = r.getTargets();
+        int[] reverse = r.getReverse();
+        int min = Integer.MAX_VALUE;
+        for(int v = end; v != start; v = targets[reverse[parentArcs[v]]])
+        {
+            int edgeWeight = r.residual(parentArcs[v]);
+            if (edgeWeight < min)
+            {
+                min = edgeWeight;
             }
         }
-        return layers;
+        return min;
+    }
+
+    /*
+     * Method that sends flow along an augmenting path.  Each arc on the
+     * path and its mate are updated in constant time.
+     * @param r is the residual graph the path is in
+     * @param start is the first vertex of the path
+     * @param end is the last vertex of the path
+     * @param parentArcs holds the arc each vertex was reached through
+     * @param amount is the flow to send
+     */
+    private void augment(ResidualGraph r, int start, int end, int[] parentArcs, int amount)
+    {
+        int[] targets = r.getTargets();
+        int[] reverse = r.getReverse();
+        for(int v = end; v != start; v = targets[reverse[parentArcs[v]]])
+        {
+            r.push(parentArcs[v], amount);
+        }
     }
 
     /*
      * Method that represents the Ford-Fulkerson algorithm.
      * @param g is the graph to find the max flow on
-     * @return the graph after Ford-Fulkerson has been completed
+     * @return the flow and its min cut, or null if it could not be run
      */
-    public Graph fordFulkerson(Graph g, boolean t)
+    public FlowResult fordFulkerson(Graph g, boolean t)
     {
-        int flow = 0;
-        Graph newG = g;
-        int[][] newMatrix = newG.getMatrix();
-        ArrayList<LinkedList<Integer>> list = g.getList();
-        List<Integer> verticesVisited = dfsAugmentingPath(newG, 0, new ArrayList<Integer>(1));
+        return fordFulkerson(g, t, false);
+    }
+
+    /*
+     * Method that represents the Ford-Fulkerson algorithm.  With capacity
+     * scaling, only arcs with a residual capacity of at least delta are used,
+     * starting from the largest power of two no bigger than any capacity and
+     * halving delta when no more paths are left.  That bounds the number of
+     * augmenting paths by O(E log U), where U is the largest capacity.
+     * @param g is the graph to find the max flow on
+     * @param scaling is whether to use capacity scaling
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult fordFulkerson(Graph g, boolean t, boolean scaling)
+    {
+        return fordFulkerson(g, t, scaling, g.getSource(), g.getSink());
+    }
+
+    /*
+     * Method that runs the Ford-Fulkerson algorithm between any two vertices.
+     * @param g is the graph to find the max flow on
+     * @param scaling is whether to use capacity scaling
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult fordFulkerson(Graph g, boolean t, boolean scaling, int source, int sink)
+    {
+        ResidualGraph r = g.getResidual();
+        if(!validTerminals(r, source, sink))
+        {
+            return null;
+        }
+        r.reset();
+        FlowWorkspace w = new FlowWorkspace(r);
+        int[] parentArcs = w.getParentArcs();
         int maxFlow = 0;
-        while(verticesVisited.size() > 1)
+        int delta = 1;
+        if(scaling)
         {
-            if(!t)
+            int maxCapacity = 0;
+            for(int c : r.getCapacities())
             {
-                System.out.println("---Current Adjacency Matrix:---");
-                g.printMatrix();
-                System.out.println();
+                maxCapacity = Math.max(maxCapacity, c);
             }
-            int min = newMatrix[verticesVisited.get(0)][verticesVisited.get(1)];
-            for(int i = 2; i < verticesVisited.size(); i++)
+            delta = Math.max(1, Integer.highestOneBit(maxCapacity));
+        }
+        while(delta >= 1)
+        {
+            if(!t && scaling)
             {
-                int edgeWeight = newMatrix[verticesVisited.get(i-1)][verticesVisited.get(i)];
-                if (edgeWeight < min)
-                {
-                    min = edgeWeight;
-                }
+                System.out.println("Delta: " + delta);
             }
-            if(verticesVisited.contains(g.order() - 1))
+            while(dfsAugmentingPath(w, source, sink, delta))
             {
-                maxFlow += min;
-                for(int i = 1; i < verticesVisited.size(); i++)
+                if(!t)
                 {
-                    int first = verticesVisited.get(i-1);
-                    int second = verticesVisited.get(i);
-                    newMatrix[first][second] -= min;
-                    newG.addToTaken(first, second, min);
-                    if (newMatrix[first][second] == 0)
-                    {
-                        list.get(first).remove((Integer) second);
-                    }
-                    if(newMatrix[second][first] == 0)
-                    {
-                        list.get(second).add((Integer) first);
-                    }
-                    newMatrix[second][first] += min;
+                    System.out.println("---Current Adjacency Matrix:---");
+                    g.printMatrix();
+                    System.out.println();
                 }
+                int min = bottleneck(r, source, sink, parentArcs);
+                maxFlow += min;
+                augment(r, source, sink, parentArcs, min);
                 if(!t)
                 {
-                    System.out.println("Augmenting Path: " + verticesVisited + " ==> " + min);
+                    System.out.println("Augmenting Path: " + pathVertices(r, source, sink, parentArcs) + " ==> " + min);
+                    System.out.println("---Generated Residual Matrix:---");
+                    g.printMatrix();
+                    System.out.println();
                 }
             }
-            newG.setMatrix(newMatrix);
-            if(!t)
-            {
-                System.out.println("---Generated Residual Matrix:---");
-                g.printMatrix();
-                System.out.println();
-            }
-            newG.setList(list);
-            verticesVisited = dfsAugmentingPath(newG, 0, new ArrayList<Integer>(1));
+            delta /= 2;
         }
-        System.out.println("Optimal Flow: " + maxFlow);
-        newG.printTaken();
-        return g;
+        return report(g, source, maxFlow);
     }
 
     /*
-     * Method that simulates the Edmonds-Karp algorithm.
+     * Method that simulates the Edmonds-Karp algorithm.  Each shortest
+     * augmenting path is found by a breadth-first search from both ends.
      * @param g is the graph to find the max flow on
-     * @return the graph after the Edmonds-Karp algorithm has been completed
+     * @return the flow and its min cut, or null if it could not be run
      */
-    public Graph edmondsKarp(Graph g, boolean t)
+    public FlowResult edmondsKarp(Graph g, boolean t)
     {
-        int flow = 0;
-        Graph newG = g;
-        int[][] newMatrix = newG.getMatrix();
-        ArrayList<LinkedList<Integer>> list = g.getList();
-        List<Integer> verticesVisited = bfsAugmentingPath(newG, 0, new ArrayList<Integer>(1));
+        return edmondsKarp(g, t, g.getSource(), g.getSink());
+    }
+
+    /*
+     * Method that runs the Edmonds-Karp algorithm between any two vertices.
+     * @param g is the graph to find the max flow on
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult edmondsKarp(Graph g, boolean t, int source, int sink)
+    {
+        ResidualGraph r = g.getResidual();
+        if(!validTerminals(r, source, sink))
+        {
+            return null;
+        }
+        r.reset();
+        FlowWorkspace w = new FlowWorkspace(r);
+        int[] parentArcs = w.getParentArcs();
         int maxFlow = 0;
-        while(verticesVisited.size() > 1)
+        while(bidirectionalAugmentingPath(w, source, sink))
         {
             if(!t)
             {
@@ -244,251 +437,1340 @@ public class Algorithms
                 g.printMatrix();
                 System.out.println();
             }
-            int min = newMatrix[verticesVisited.get(0)][verticesVisited.get(1)];
-            for(int i = 2; i < verticesVisited.size(); i++)
-            {
-                int edgeWeight = newMatrix[verticesVisited.get(i-1)][verticesVisited.get(i)];
-                if (edgeWeight < min)
-                {
-                    min = edgeWeight;
-                }
-            }
-            if(verticesVisited.contains(g.order() - 1))
-            {
-                maxFlow += min;
-                for(int i = 1; i < verticesVisited.size(); i++)
-                {
-                    int first = verticesVisited.get(i-1);
-                    int second = verticesVisited.get(i);
-                    newMatrix[first][second] -= min;
-                    newG.addToTaken(first, second, min);
-                    if (newMatrix[first][second] == 0)
-                    {
-                        list.get(first).remove((Integer) second);
-                    }
-                    if(newMatrix[second][first] == 0)
-                    {
-                        list.get(second).add((Integer) first);
-                    }
-                    newMatrix[second][first] += min;
-                }
-                if(!t)
-                {
-                    System.out.println("Augmenting Path: " + verticesVisited + " ==> " + min);
-                }
-            }
-            newG.setMatrix(newMatrix);
+            int min = bottleneck(r, source, sink, parentArcs);
+            maxFlow += min;
+            augment(r, source, sink, parentArcs, min);
             if(!t)
             {
+                System.out.println("Augmenting Path: " + pathVertices(r, source, sink, parentArcs) + " ==> " + min);
                 System.out.println("---Generated Residual Matrix:---");
                 g.printMatrix();
                 System.out.println();
             }
-            newG.setList(list);
-            verticesVisited = bfsAugmentingPath(newG, 0, new ArrayList<Integer>(1));
         }
-        System.out.println("Optimal Flow: " + maxFlow);
-        newG.printTaken();
-        return g;
+        return report(g, source, maxFlow);
     }
 
     /*
-     * Method that runs Dinic's algorithm on a graph.
-     * @param g is the graph to find the max flow on
-     * @return the graph after Dinic's algorithm has been completed
+     * Method that finds a blocking flow in the level graph of one Dinic phase.
+     * Each vertex keeps a current-arc pointer that only moves forward, so an
+     * arc that is saturated or leads to a dead end is never looked at again
+     * during the phase.
+     * @param r is the residual graph to send flow in
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @param layers is the layer of each vertex from bfsLayers
+     * @param current holds the current arc of each vertex
+     * @param pathArcs holds the arcs of the path being built
+     * @param t is whether the visualizer is in timing mode
+     * @return the amount of flow sent during the phase
      */
-    public Graph dinic(Graph g, boolean t)
+    private int blockingFlow(ResidualGraph r, int source, int sink, int[] layers, int[] current, int[] pathArcs, boolean t)
     {
-        int maxFlow = 0;
-        Graph newG = g;
-        int end = g.order() - 1;
-        int[][] newMatrix = newG.getMatrix();
-        ArrayList<LinkedList<Integer>> list = g.getList();
-        List<Integer> augPath;
-        int[] layers = bfsLayers(g, 0);
-        int min;
-        while(layers[end] != -1)
-        {
-            int distance = layers[end];
-            int currentDis = distance;
-            if(!t)
-            {
-                System.out.println("Length from Source to Terminal: " + currentDis);
-                System.out.println("---Current Adjacency Matrix:---");
-                g.printMatrix();
-                System.out.println();
-            }
-            while(distance == currentDis)
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] reverse = r.getReverse();
+        System.arraycopy(offsets, 0, current, 0, r.order());
+        int flow = 0;
+        int depth = 0;
+        int v = source;
+        while(true)
+        {
+            if(v == sink)
             {
-                augPath = bfsAugmentingPath(newG, 0, new ArrayList<Integer>());
-                if(layers[augPath.get(0)] == layers[augPath.get(1)] - 1)
-                {
-                    min = newMatrix[augPath.get(0)][augPath.get(1)];
-                }
-                else
+                int min = Integer.MAX_VALUE;
+                for(int i = 0; i < depth; i++)
                 {
-                    min = 0;
+                    min = Math.min(min, r.residual(pathArcs[i]));
                 }
-                for(int i = 2; i < augPath.size(); i++)
+                if(!t)
                 {
-                    int edgeWeight = newMatrix[augPath.get(i-1)][augPath.get(i)];
-                    if (edgeWeight < min && layers[augPath.get(i-1)] == layers[augPath.get(i)] - 1)
+                    List<Integer> path = new ArrayList<Integer>(depth + 1);
+                    path.add(source);
+                    for(int i = 0; i < depth; i++)
                     {
-                        min = edgeWeight;
+                        path.add(targets[pathArcs[i]]);
                     }
+                    System.out.println("Augmenting Path: " + path + " ==> " + min);
                 }
-                maxFlow += min;
-                for(int i = 1; i < augPath.size(); i++)
+                int retreat = depth;
+                for(int i = depth - 1; i >= 0; i--)
                 {
-                    int first = augPath.get(i-1);
-                    int second = augPath.get(i);
-                    newMatrix[first][second] -= min;
-                    newG.addToTaken(first, second, min);
-                    if (newMatrix[first][second] == 0)
+                    r.push(pathArcs[i], min);
+                    if(r.residual(pathArcs[i]) == 0)
                     {
-                        list.get(first).remove((Integer) second);
+                        retreat = i;
                     }
-                    if(newMatrix[second][first] == 0)
-                    {
-                        list.get(second).add((Integer) first);
-                    }
-                    newMatrix[second][first] += min;
                 }
-                if(!t)
+                flow += min;
+                depth = retreat;
+                v = depth == 0 ? source : targets[pathArcs[depth - 1]];
+                continue;
+            }
+            //Nothing on the sink's layer but the sink can lead to it
+            int a = layers[v] < layers[sink] ? current[v] : offsets[v + 1];
+            while(a < offsets[v + 1] && (r.residual(a) == 0 || layers[targets[a]] != layers[v] + 1))
+            {
+                a++;
+            }
+            current[v] = a;
+            if(a < offsets[v + 1])
+            {
+                pathArcs[depth++] = a;
+                v = targets[a];
+            }
+            else
+            {
+                if(depth == 0)
                 {
-                    System.out.println("Augmenting Path: " + augPath + " ==> " + min);
+                    return flow;
                 }
-                layers = bfsLayers(g, 0);
-                currentDis = layers[g.order() - 1];
+                layers[v] = -1;
+                depth--;
+                v = targets[reverse[pathArcs[depth]]];
+                current[v]++;
+            }
+        }
+    }
+
+    /*
+     * Method that runs Dinic's algorithm between two vertices.  It only
+     * touches the workspace it is given, so it can run on several copies
+     * of a graph at once.
+     * @param w is the workspace with the residual graph and buffers
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @param t is whether the visualizer is in timing mode
+     * @return the value of the maximum flow
+     */
+    int dinicFlow(FlowWorkspace w, int source, int sink, boolean t)
+    {
+        ResidualGraph r = w.getResidual();
+        int maxFlow = 0;
+        int[] current = w.getCurrent();
+        int[] pathArcs = w.getPathArcs();
+        int[] layers = bfsLayers(w, source, sink);
+        while(layers[sink] != -1)
+        {
+            if(!t)
+            {
+                System.out.println("Length from Source to Terminal: " + layers[sink]);
+                System.out.println("---Current Adjacency Matrix:---");
+                r.printMatrix();
+                System.out.println();
             }
-            newG.setMatrix(newMatrix);
+            maxFlow += blockingFlow(r, source, sink, layers, current, pathArcs, t);
             if(!t)
             {
                 System.out.println("---Generated Residual Matrix:---");
-                g.printMatrix();
+                r.printMatrix();
                 System.out.println();
             }
-            newG.setList(list);
-            layers = bfsLayers(newG, 0);
+            layers = bfsLayers(w, source, sink);
         }
-        System.out.println("Optimal Flow: " + maxFlow);
-        newG.printTaken();
-        return g;
+        return maxFlow;
+    }
+
+    /*
+     * Method that finds the max flow between two vertices without printing
+     * anything, for answering many queries on one graph.  The flow from the
+     * last query is cleared first, and only the buffers in the workspace
+     * are used, so nothing the size of the graph is allocated.
+     * @param w is the workspace with the residual graph and buffers
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @return the value of the maximum flow
+     */
+    public int maxFlow(FlowWorkspace w, int source, int sink)
+    {
+        w.getResidual().reset();
+        return dinicFlow(w, source, sink, true);
     }
 
     /*
-     * Method that executes Karger's Min-Cut algorithm on a graph.
+     * Method that runs Dinic's algorithm on a graph.  Each phase builds the
+     * level graph with one breadth-first search and then saturates it with
+     * a blocking flow.
      * @param g is the graph to find the max flow on
-     * @return the graph after Karger's Min-Cut algorithm is done
+     * @return the flow and its min cut, or null if it could not be run
      */
-    public Graph kargerMinCut(Graph g, boolean t)
+    public FlowResult dinic(Graph g, boolean t)
     {
-        int numEdges = g.size();
-        ArrayList<LinkedList<Integer>> adjList = g.getList();
-        ArrayList<Integer> groupA = new ArrayList<Integer>();
-        ArrayList<Integer> groupB = new ArrayList<Integer>();
-        int[] verts = new int[g.order()];
-        ArrayList<Integer> remVerts = new ArrayList<Integer>(g.order());
-        for(int i = 0; i < g.order(); i++)
+        return dinic(g, t, g.getSource(), g.getSink());
+    }
+
+    /*
+     * Method that runs Dinic's algorithm between any two vertices.
+     * @param g is the graph to find the max flow on
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult dinic(Graph g, boolean t, int source, int sink)
+    {
+        ResidualGraph r = g.getResidual();
+        if(!validTerminals(r, source, sink))
+        {
+            return null;
+        }
+        r.reset();
+        int maxFlow = dinicFlow(new FlowWorkspace(r), source, sink, t);
+        return report(g, source, maxFlow);
+    }
+
+    /*
+     * Method that relabels the graph exactly with reverse breadth-first
+     * searches.  Vertices that can reach the sink get their distance to it.
+     * The rest get the number of vertices plus their distance to the source,
+     * and vertices that can reach neither are put out of reach at 2n.
+     * @param r is the residual graph the preflow is in
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @param height holds the label of each vertex
+     * @param count holds how many vertices have each label
+     * @param current holds the current arc of each vertex
+     * @param q is the queue used by the searches
+     */
+    private void globalRelabel(ResidualGraph r, int source, int sink, int[] height, int[] count, int[] current, int[] q)
+    {
+        int n = r.order();
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] reverse = r.getReverse();
+        Arrays.fill(height, -1);
+        Arrays.fill(count, 0);
+        height[source] = n;
+        height[sink] = 0;
+        int[] roots = {sink, source};
+        for(int root : roots)
+        {
+            int head = 0;
+            int tail = 0;
+            q[tail++] = root;
+            while(head != tail)
+            {
+                int w = q[head++];
+                for(int a = offsets[w]; a < offsets[w + 1]; a++)
+                {
+                    int u = targets[a];
+                    if(height[u] == -1 && r.residual(reverse[a]) > 0)
+                    {
+                        height[u] = height[w] + 1;
+                        q[tail++] = u;
+                    }
+                }
+            }
+        }
+        for(int v = 0; v < n; v++)
         {
-            verts[i] = i;
-            remVerts.add((Integer) i);
+            if(height[v] == -1)
+            {
+                height[v] = 2 * n;
+            }
+            count[height[v]]++;
+            current[v] = offsets[v];
+        }
+    }
+
+    /*
+     * Method that runs the push-relabel algorithm between two vertices.
+     * Active vertices are taken either first-in first-out or highest label
+     * first.  When no vertex is left on some label below n, every vertex
+     * above that gap is lifted past n, and the labels are recomputed with
+     * globalRelabel after every 6n + m units of relabel work.
+     * @param r is the residual graph to find the max flow on
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @param highestLabel is whether to discharge the highest active vertex first
+     * @param t is whether the visualizer is in timing mode
+     * @return the value of the maximum flow
+     */
+    private int pushRelabelFlow(ResidualGraph r, int source, int sink, boolean highestLabel, boolean t)
+    {
+        int n = r.order();
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] height = new int[n];
+        int[] excess = new int[n];
+        int[] current = new int[n];
+        int[] count = new int[2 * n + 1];
+        int[] bfsQueue = new int[n];
+        int[] q = new int[n];
+        //FIFO queue, used when highestLabel is false
+        int head = 0;
+        int size = 0;
+        //Buckets of active vertices by label, used when highestLabel is true
+        int[] bucket = new int[2 * n + 1];
+        int[] nextActive = new int[n];
+        int highest = 0;
+        Arrays.fill(bucket, -1);
+        boolean[] active = new boolean[n];
+
+        for(int a = offsets[source]; a < offsets[source + 1]; a++)
+        {
+            int d = r.residual(a);
+            if(d > 0)
+            {
+                r.push(a, d);
+                excess[source] -= d;
+                excess[targets[a]] += d;
+            }
         }
-        int[][] adjMatrix = g.getMatrix();
-        Random random = new Random();
-        int firstVertex = 0;
-        int secondVertex = 0;
-        while(remVerts.size() > 2)
+        globalRelabel(r, source, sink, height, count, current, bfsQueue);
+        for(int v = 0; v < n; v++)
         {
-            int chosenEdge = random.nextInt(numEdges - 1) + 1;
-            int counter = 0;
-            for(int j = 0; j < g.order(); j++)
+            if(excess[v] > 0 && v != source && v != sink)
             {
-                if(adjList.get(j).size() + counter >= chosenEdge)
+                active[v] = true;
+                if(highestLabel)
                 {
-                     firstVertex = j;
-                     secondVertex = adjList.get(j).get(chosenEdge - counter - 1);
-                     break;
+                    nextActive[v] = bucket[height[v]];
+                    bucket[height[v]] = v;
+                    highest = Math.max(highest, height[v]);
                 }
                 else
                 {
-                     counter += adjList.get(j).size();
+                    q[(head + size++) % n] = v;
                 }
             }
-            int newCombo = verts[secondVertex];
-            remVerts.clear();
-            for(int i = 0; i < g.order(); i++)
+        }
+        long work = 0;
+        long workLimit = 6L * n + r.arcCount() / 2;
+        while(true)
+        {
+            //SELECT AN ACTIVE VERTEX
+            int v;
+            if(highestLabel)
             {
-                if(verts[i] == newCombo)
+                while(highest >= 0 && bucket[highest] == -1)
+                {
+                    highest--;
+                }
+                if(highest < 0)
                 {
-                    verts[i] = verts[firstVertex];
+                    break;
                 }
-                if(!remVerts.contains((Integer) verts[i]))
+                v = bucket[highest];
+                bucket[highest] = nextActive[v];
+                if(height[v] != highest)
                 {
-                    remVerts.add((Integer) verts[i]);
+                    //Lifted by a gap or a global relabel since it was queued
+                    nextActive[v] = bucket[height[v]];
+                    bucket[height[v]] = v;
+                    highest = Math.max(highest, height[v]);
+                    continue;
                 }
             }
-            for(int i = 0; i < adjList.get(firstVertex).size(); i++)
+            else
             {
-                if(verts[firstVertex] == verts[adjList.get(firstVertex).get(i)])
+                if(size == 0)
                 {
-                    int rm = adjList.get(firstVertex).get(i);
-                    adjList.get(firstVertex).remove(i);
-                    boolean und = adjList.get(rm).remove((Integer) firstVertex);
-                    if(und)
-                    {
-                        numEdges--;
-                    }
-                    numEdges--;
+                    break;
                 }
+                v = q[head];
+                head = (head + 1) % n;
+                size--;
             }
-            for(int i = 0; i < adjList.get(secondVertex).size(); i++)
+            active[v] = false;
+
+            //DISCHARGE IT
+            while(excess[v] > 0)
             {
-                if(verts[secondVertex] == verts[adjList.get(secondVertex).get(i)])
+                if(current[v] == offsets[v + 1])
                 {
-                    int rm = adjList.get(secondVertex).get(i);
-                    adjList.get(secondVertex).remove(i);
-                    boolean und = adjList.get(rm).remove((Integer) secondVertex);
-                    if(und)
+                    int old = height[v];
+                    int newHeight = 2 * n;
+                    for(int a = offsets[v]; a < offsets[v + 1]; a++)
+                    {
+                        if(r.residual(a) > 0)
+                        {
+                            newHeight = Math.min(newHeight, height[targets[a]] + 1);
+                        }
+                    }
+                    work += offsets[v + 1] - offsets[v] + 12;
+                    count[old]--;
+                    if(old < n && count[old] == 0)
+                    {
+                        //GAP: nothing above this label can reach the sink
+                        for(int u = 0; u < n; u++)
+                        {
+                            if(height[u] > old && height[u] < n)
+                            {
+                                count[height[u]]--;
+                                height[u] = n + 1;
+                                count[n + 1]++;
+                                current[u] = offsets[u];
+                            }
+                        }
+                        newHeight = Math.max(newHeight, n + 1);
+                    }
+                    height[v] = newHeight;
+                    count[newHeight]++;
+                    current[v] = offsets[v];
+                    if(!t)
+                    {
+                        System.out.println("Relabel " + v + ": " + old + " -> " + newHeight);
+                    }
+                    if(work > workLimit)
                     {
-                        numEdges--;
+                        globalRelabel(r, source, sink, height, count, current, bfsQueue);
+                        work = 0;
+                        if(!t)
+                        {
+                            System.out.println("Global relabel");
+                        }
                     }
-                    numEdges--;
+                    continue;
                 }
-            }
-            if(!t)
-            {
-                System.out.println("Combined vertices " + firstVertex + " and " + secondVertex);
-            }
-        }
-        int maxFlow = 0;
-        groupA.add(0);
-        for(int i = 1; i < verts.length; i++)
-            {
-                if(verts[i] == verts[0])
+                int a = current[v];
+                int w = targets[a];
+                if(r.residual(a) > 0 && height[v] == height[w] + 1)
                 {
-                    groupA.add(i);
+                    int d = Math.min(excess[v], r.residual(a));
+                    r.push(a, d);
+                    excess[v] -= d;
+                    excess[w] += d;
+                    if(!t)
+                    {
+                        System.out.println("Push " + d + " from " + v + " to " + w);
+                    }
+                    if(!active[w] && w != source && w != sink)
+                    {
+                        active[w] = true;
+                        if(highestLabel)
+                        {
+                            nextActive[w] = bucket[height[w]];
+                            bucket[height[w]] = w;
+                            highest = Math.max(highest, height[w]);
+                        }
+                        else
+                        {
+                            q[(head + size++) % n] = w;
+                        }
+                    }
                 }
                 else
                 {
-                    groupB.add(i);
+                    current[v]++;
                 }
             }
+        }
         if(!t)
         {
-            System.out.println("\nFinal Two Groups of Vertices: ");
+            System.out.println("---Generated Residual Matrix:---");
+            r.printMatrix();
+            System.out.println();
+        }
+        return excess[sink];
+    }
+
+    /*
+     * Method that runs the push-relabel algorithm on a graph.
+     * @param g is the graph to find the max flow on
+     * @param highestLabel is whether to use highest-label selection instead of FIFO
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult pushRelabel(Graph g, boolean t, boolean highestLabel)
+    {
+        return pushRelabel(g, t, highestLabel, g.getSource(), g.getSink());
+    }
+
+    /*
+     * Method that runs the push-relabel algorithm between any two vertices.
+     * @param g is the graph to find the max flow on
+     * @param highestLabel is whether to use highest-label selection instead of FIFO
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult pushRelabel(Graph g, boolean t, boolean highestLabel, int source, int sink)
+    {
+        ResidualGraph r = g.getResidual();
+        if(!validTerminals(r, source, sink))
+        {
+            return null;
+        }
+        r.reset();
+        int maxFlow = pushRelabelFlow(r, source, sink, highestLabel, t);
+        return report(g, source, maxFlow);
+    }
+
+    /*
+     * Method that runs the Boykov-Kolmogorov algorithm between two vertices.
+     * A search tree is grown from the source and another from the sink, and
+     * both are kept between augmentations.  When an arc joins the two trees
+     * the path through it is augmented, the vertices cut off by saturated
+     * arcs become orphans, and each orphan is adopted by a new parent in its
+     * tree or freed.  Each vertex remembers the arc to its parent in its own
+     * row, so the parent of v is always targets[parent[v]].  An active vertex
+     * also keeps the arc its growth stopped at, so after an augmentation the
+     * scan goes on from there instead of starting over.
+     * @param r is the residual graph to find the max flow on
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @param t is whether the visualizer is in timing mode
+     * @return the value of the maximum flow
+     */
+    private int boykovKolmogorovFlow(ResidualGraph r, int source, int sink, boolean t)
+    {
+        final int FREE = 0;
+        final int SOURCE_TREE = 1;
+        final int SINK_TREE = 2;
+        final int TERMINAL = -2;
+        final int ORPHAN = -1;
+        int n = r.order();
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] reverse = r.getReverse();
+        int[] tree = new int[n];
+        int[] parent = new int[n];
+        int[] stamp = new int[n];
+        int[] dist = new int[n];
+        int[] active = new int[n];
+        boolean[] queued = new boolean[n];
+        int[] current = new int[n];
+        int[] orphans = new int[n];
+        Arrays.fill(parent, ORPHAN);
+        tree[source] = SOURCE_TREE;
+        tree[sink] = SINK_TREE;
+        parent[source] = TERMINAL;
+        parent[sink] = TERMINAL;
+        int head = 0;
+        int size = 0;
+        active[(head + size++) % n] = source;
+        active[(head + size++) % n] = sink;
+        queued[source] = true;
+        queued[sink] = true;
+        current[source] = offsets[source];
+        current[sink] = offsets[sink];
+        int time = 0;
+        int maxFlow = 0;
+        while(size != 0)
+        {
+            //GROWTH: look for an arc that joins the two trees
+            int p = active[head];
+            int meeting = -1;
+            if(tree[p] != FREE)
+            {
+                for(int a = current[p]; a < offsets[p + 1] && meeting == -1; a++)
+                {
+                    current[p] = a;
+                    int q = targets[a];
+                    int toward = tree[p] == SOURCE_TREE ? a : reverse[a];
+                    if(r.residual(toward) == 0)
+                    {
+                        continue;
+                    }
+                    if(tree[q] == FREE)
+                    {
+                        tree[q] = tree[p];
+                        parent[q] = reverse[a];
+                        stamp[q] = stamp[p];
+                        dist[q] = dist[p] + 1;
+                        if(!queued[q])
+                        {
+                            queued[q] = true;
+                            current[q] = offsets[q];
+                            active[(head + size++) % n] = q;
+                        }
+                    }
+                    else if(tree[q] != tree[p])
+                    {
+                        meeting = toward;
+                    }
+                }
+            }
+            if(meeting == -1)
+            {
+                queued[p] = false;
+                head = (head + 1) % n;
+                size--;
+                continue;
+            }
+
+            //AUGMENTATION
+            time++;
+            int u = targets[reverse[meeting]];
+            int v = targets[meeting];
+            int min = r.residual(meeting);
+            for(int j = u; j != source; j = targets[parent[j]])
+            {
+                min = Math.min(min, r.residual(reverse[parent[j]]));
+            }
+            for(int j = v; j != sink; j = targets[parent[j]])
+            {
+                min = Math.min(min, r.residual(parent[j]));
+            }
+            if(!t)
+            {
+                List<Integer> path = new ArrayList<Integer>();
+                for(int j = u; j != source; j = targets[parent[j]])
+                {
+                    path.add(j);
+                }
+                path.add(source);
+                Collections.reverse(path);
+                for(int j = v; j != sink; j = targets[parent[j]])
+                {
+                    path.add(j);
+                }
+                path.add(sink);
+                System.out.println("Augmenting Path: " + path + " ==> " + min);
+            }
+            r.push(meeting, min);
+            int orphanCount = 0;
+            for(int j = u; j != source; )
+            {
+                int up = targets[parent[j]];
+                r.push(reverse[parent[j]], min);
+                if(r.residual(reverse[parent[j]]) == 0)
+                {
+                    parent[j] = ORPHAN;
+                    orphans[orphanCount++] = j;
+                }
+                j = up;
+            }
+            for(int j = v; j != sink; )
+            {
+                int up = targets[parent[j]];
+                r.push(parent[j], min);
+                if(r.residual(parent[j]) == 0)
+                {
+                    parent[j] = ORPHAN;
+                    orphans[orphanCount++] = j;
+                }
+                j = up;
+            }
+            maxFlow += min;
+
+            //ADOPTION
+            while(orphanCount != 0)
+            {
+                int o = orphans[--orphanCount];
+                int side = tree[o];
+                int best = ORPHAN;
+                int bestDist = Integer.MAX_VALUE;
+                for(int a = offsets[o]; a < offsets[o + 1]; a++)
+                {
+                    int q = targets[a];
+                    int toward = side == SOURCE_TREE ? reverse[a] : a;
+                    if(tree[q] != side || r.residual(toward) == 0)
+                    {
+                        continue;
+                    }
+                    //Walk up from q to check that it still hangs from a terminal
+                    int d = 0;
+                    int j = q;
+                    while(true)
+                    {
+                        if(stamp[j] == time)
+                        {
+                            d += dist[j];
+                            break;
+                        }
+                        if(parent[j] == TERMINAL)
+                        {
+                            stamp[j] = time;
+                            dist[j] = 0;
+                            break;
+                        }
+                        if(parent[j] == ORPHAN)
+                        {
+                            d = Integer.MAX_VALUE;
+                            break;
+                        }
+                        d++;
+                        j = targets[parent[j]];
+                    }
+                    if(d == Integer.MAX_VALUE)
+                    {
+                        continue;
+                    }
+                    if(d < bestDist)
+                    {
+                        best = a;
+                        bestDist = d;
+                    }
+                    for(j = q; stamp[j] != time; j = targets[parent[j]])
+                    {
+                        stamp[j] = time;
+                        dist[j] = d--;
+                    }
+                }
+                if(best != ORPHAN)
+                {
+                    parent[o] = best;
+                    stamp[o] = time;
+                    dist[o] = bestDist + 1;
+                    continue;
+                }
+                //No parent left: free the orphan and let its neighbours take over
+                for(int a = offsets[o]; a < offsets[o + 1]; a++)
+                {
+                    int q = targets[a];
+                    if(tree[q] != side)
+                    {
+                        continue;
+                    }
+                    int toward = side == SOURCE_TREE ? reverse[a] : a;
+                    if(r.residual(toward) > 0)
+                    {
+                        current[q] = offsets[q];
+                        if(!queued[q])
+                        {
+                            queued[q] = true;
+                            active[(head + size++) % n] = q;
+                        }
+                    }
+                    if(parent[q] >= 0 && targets[parent[q]] == o)
+                    {
+                        parent[q] = ORPHAN;
+                        orphans[orphanCount++] = q;
+                    }
+                }
+                tree[o] = FREE;
+            }
+        }
+        return maxFlow;
+    }
+
+    /*
+     * Method that runs the Boykov-Kolmogorov algorithm on a graph.
+     * @param g is the graph to find the max flow on
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult boykovKolmogorov(Graph g, boolean t)
+    {
+        return boykovKolmogorov(g, t, g.getSource(), g.getSink());
+    }
+
+    /*
+     * Method that runs the Boykov-Kolmogorov algorithm between any two vertices.
+     * @param g is the graph to find the max flow on
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult boykovKolmogorov(Graph g, boolean t, int source, int sink)
+    {
+        ResidualGraph r = g.getResidual();
+        if(!validTerminals(r, source, sink))
+        {
+            return null;
+        }
+        r.reset();
+        int maxFlow = boykovKolmogorovFlow(r, source, sink, t);
+        if(!t)
+        {
+            System.out.println("---Generated Residual Matrix:---");
+            r.printMatrix();
+            System.out.println();
+        }
+        return report(g, source, maxFlow);
+    }
+
+    /*
+     * Method that runs the push-relabel algorithm on several threads.
+     * @param g is the graph to find the max flow on
+     * @param threads is the number of threads to use
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult parallelPushRelabel(Graph g, boolean t, int threads)
+    {
+        return parallelPushRelabel(g, t, threads, g.getSource(), g.getSink());
+    }
+
+    /*
+     * Method that runs the parallel push-relabel algorithm between any two vertices.
+     * @param g is the graph to find the max flow on
+     * @param threads is the number of threads to use
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult parallelPushRelabel(Graph g, boolean t, int threads, int source, int sink)
+    {
+        ResidualGraph r = g.getResidual();
+        if(!validTerminals(r, source, sink))
+        {
+            return null;
+        }
+        r.reset();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ParallelPushRelabel solver = new ParallelPushRelabel(pool);
+        int maxFlow;
+        try
+        {
+            maxFlow = solver.maxFlow(r, source, sink);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        if(!t)
+        {
+            System.out.println("Rounds: " + solver.getRounds());
+            System.out.println("---Generated Residual Matrix:---");
+            r.printMatrix();
+            System.out.println();
+        }
+        return report(g, source, maxFlow);
+    }
+
+    /*
+     * Method that runs the Hopcroft-Karp algorithm on an assignment problem.
+     * @param g is the graph to find the max flow on
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult hopcroftKarp(Graph g, boolean t)
+    {
+        return hopcroftKarp(g, t, g.getSource(), g.getSink());
+    }
+
+    /*
+     * Method that runs the Hopcroft-Karp algorithm between any two vertices.
+     * Every edge must have capacity 1 and go from the source to a left
+     * vertex, from a left vertex to a right vertex, or from a right vertex
+     * to the sink.
+     * @param g is the graph to find the max flow on
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult hopcroftKarp(Graph g, boolean t, int source, int sink)
+    {
+        ResidualGraph r = g.getResidual();
+        if(!validTerminals(r, source, sink))
+        {
+            return null;
+        }
+        HopcroftKarp solver = new HopcroftKarp(r, source, sink);
+        if(!solver.fits())
+        {
+            System.out.println("Hopcroft-Karp needs capacity 1 edges from the source to the left side, the left side to the right side, and the right side to the sink.");
+            return null;
+        }
+        r.reset();
+        int maxFlow = solver.maxFlow();
+        if(!t)
+        {
+            System.out.println("Phases: " + solver.getPhases());
+        }
+        return report(g, source, maxFlow);
+    }
+
+    /*
+     * Method that runs Dinic's algorithm specialized to capacities of 0 or 1.
+     * @param g is the graph to find the max flow on
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult unitDinic(Graph g, boolean t)
+    {
+        return unitDinic(g, t, g.getSource(), g.getSink());
+    }
+
+    /*
+     * Method that runs Dinic's algorithm specialized to capacities of 0 or 1
+     * between any two vertices.  The max flow is the number of
+     * edge-disjoint paths between them.
+     * @param g is the graph to find the max flow on
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult unitDinic(Graph g, boolean t, int source, int sink)
+    {
+        ResidualGraph r = g.getResidual();
+        if(!validTerminals(r, source, sink))
+        {
+            return null;
+        }
+        UnitDinic solver = new UnitDinic(r);
+        if(!solver.fits())
+        {
+            System.out.println("Unit-capacity Dinic's needs every capacity to be 0 or 1.");
+            return null;
+        }
+        int maxFlow = solver.maxFlow(source, sink);
+        if(!t)
+        {
+            System.out.println("Phases: " + solver.getPhases());
+        }
+        return report(g, source, maxFlow);
+    }
+
+    /*
+     * Method that builds a Gomory-Hu tree of an undirected graph, which
+     * answers the min cut between any two vertices without another max
+     * flow.
+     * @param g is the graph to build the tree of
+     * @param threads is the number of threads to run the max flows on
+     * @return the tree, or null if the graph is directed
+     */
+    public GomoryHuTree gomoryHu(Graph g, boolean t, int threads)
+    {
+        if(!(g instanceof UndirectedGraph))
+        {
+            System.out.println("A Gomory-Hu tree needs an undirected graph.");
+            return null;
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        GomoryHuTree tree;
+        try
+        {
+            tree = new GomoryHuTree(g.getResidual(), pool);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        if(!t)
+        {
+            System.out.println("Max flows run: " + tree.getFlows());
+        }
+        System.out.println("Gomory-Hu tree edges and their min cut: ");
+        for(int v = 1; v < tree.order(); v++)
+        {
+            System.out.println("(" + v + ", " + tree.getParent(v) + "): " + tree.getWeight(v));
+        }
+        return tree;
+    }
+
+    /*
+     * Method that picks the max flow algorithm that should be fastest on a
+     * graph from its statistics, runs it from the graph's source to its sink,
+     * and then prints which one it picked and why.
+     * @param g is the graph to find the max flow on
+     * @param t is whether timing mode is on
+     * @param stats is the statistics of the graph
+     * @param threads is the number of threads that can be used
+     * @return the flow and its min cut, or null if it could not be run
+     */
+    public FlowResult auto(Graph g, boolean t, GraphStats stats, int threads)
+    {
+        int n = stats.getVertices();
+        String engine;
+        String reason;
+        FlowResult result;
+        if(stats.isAssignment())
+        {
+            engine = "Hopcroft-Karp";
+            reason = "the graph is an assignment problem, so a matching in O(E sqrt(V)) time is the max flow";
+            result = hopcroftKarp(g, t);
+        }
+        else if(threads > 1 && n >= PARALLEL_VERTICES)
+        {
+            engine = "Parallel Push-Relabel";
+            reason = n + " vertices is enough work to share between " + threads + " threads";
+            result = parallelPushRelabel(g, t, threads);
+        }
+        else if(stats.getDensity() >= DENSE)
+        {
+            engine = "Dinic's";
+            reason = "the graph is dense, so each blocking flow does a lot of work for one search";
+            result = dinic(g, t);
+        }
+        else if(stats.isUnitCapacity() && stats.getFlowBound() > n / SMALL_FLOW)
+        {
+            engine = "Unit-Capacity Dinic's";
+            reason = "every capacity is 1, so there are at most O(min(sqrt(E), V^(2/3))) phases, and a flow of up to "
+                + stats.getFlowBound() + " is worth them";
+            result = unitDinic(g, t);
+        }
+        else if(stats.isUnitCapacity())
+        {
+            engine = "Push-Relabel (FIFO)";
+            reason = "every capacity is 1, so every push saturates its arc";
+            result = pushRelabel(g, t, false);
+        }
+        else if(stats.getFlowBound() <= n / SMALL_FLOW && stats.getDiameter() <= SHORT_PATHS)
+        {
+            engine = "Boykov-Kolmogorov";
+            reason = "the flow is at most " + stats.getFlowBound() + " and paths are short, so the few"
+                + " augmentations can reuse the search trees";
+            result = boykovKolmogorov(g, t);
+        }
+        else
+        {
+            engine = "Push-Relabel (FIFO)";
+            reason = stats.getDiameter() > SHORT_PATHS ? "paths are long, and push-relabel never searches for one"
+                : "sparse graph with a large flow, where FIFO push-relabel with global relabeling does best";
+            result = pushRelabel(g, t, false);
+        }
+        System.out.println("Engine: " + engine + " (" + reason + ")");
+        return result;
+    }
+
+    /*
+     * Method that shrinks a graph before a max flow from its source to its
+     * sink is found on it.  Vertices that no flow can pass through
+     * are removed, parallel edges are merged and chains are contracted.
+     * @param g is the graph to reduce
+     * @param t is whether timing mode is on
+     * @return the reduced graph with the map back to the original vertices,
+     * or null if the graph has fewer than two vertices
+     */
+    public ReducedGraph reduce(Graph g, boolean t)
+    {
+        if(!validTerminals(g.getResidual(), g.getSource(), g.getSink()))
+        {
+            return null;
+        }
+        ReducedGraph reduced = new ReducedGraph(g, g.getSource(), g.getSink());
+        Graph h = reduced.getGraph();
+        System.out.println("Reduced from " + g.order() + " vertices and " + g.size() + " edges to "
+            + h.order() + " vertices and " + h.size() + " edges.");
+        if(!t)
+        {
+            for(int v = 0; v < h.order(); v++)
+            {
+                System.out.println("Vertex " + v + " is original vertex " + reduced.getOriginal(v));
+            }
+        }
+        return reduced;
+    }
+
+    /*
+     * Method that sets the first potentials for min-cost flow.  With no
+     * negative costs every potential is 0; otherwise they are the shortest
+     * distances from the source found by Bellman-Ford.
+     * @param r is the residual graph
+     * @param source is the vertex the flow starts from
+     * @param potential is filled with the potential of each vertex
+     * @return false if a cycle of negative cost can be reached from the source
+     */
+    private boolean initialPotentials(ResidualGraph r, int source, long[] potential)
+    {
+        int n = r.order();
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] costs = r.getCosts();
+        boolean negative = false;
+        for(int a = 0; a < r.arcCount() && !negative; a++)
+        {
+            negative = costs[a] < 0 && r.residual(a) > 0;
+        }
+        Arrays.fill(potential, 0);
+        if(!negative)
+        {
+            return true;
+        }
+        long[] dist = new long[n];
+        Arrays.fill(dist, INFINITY);
+        dist[source] = 0;
+        for(int round = 0; round < n; round++)
+        {
+            boolean changed = false;
+            for(int u = 0; u < n; u++)
+            {
+                if(dist[u] == INFINITY)
+                {
+                    continue;
+                }
+                for(int a = offsets[u]; a < offsets[u + 1]; a++)
+                {
+                    if(r.residual(a) > 0 && dist[u] + costs[a] < dist[targets[a]])
+                    {
+                        dist[targets[a]] = dist[u] + costs[a];
+                        changed = true;
+                    }
+                }
+            }
+            if(!changed)
+            {
+                for(int v = 0; v < n; v++)
+                {
+                    if(dist[v] != INFINITY)
+                    {
+                        potential[v] = dist[v];
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Method that finds the distance to the sink with Dijkstra's algorithm
+     * on the reduced costs c(u, v) + p(u) - p(v), which the potentials keep
+     * from being negative, and then raises the potentials by the distances
+     * so that every arc on a cheapest path has a reduced cost of 0.  The
+     * search stops once the sink is reached, and vertices farther away are
+     * raised by the distance to the sink.  The heap is a max-heap, so
+     * distances are stored negated.
+     * @param r is the residual graph
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @param potential holds the potential of each vertex
+     * @param dist is used for the reduced distance to each vertex
+     * @param heap is a heap with room for every vertex
+     * @return whether the sink can be reached
+     */
+    private boolean cheapestPath(ResidualGraph r, int source, int sink, long[] potential, long[] dist, IndexedMaxHeap heap)
+    {
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] costs = r.getCosts();
+        Arrays.fill(dist, INFINITY);
+        heap.clear();
+        dist[source] = 0;
+        heap.insert(source, 0);
+        while(!heap.isEmpty())
+        {
+            int u = heap.extractMax();
+            if(u == sink)
+            {
+                break;
+            }
+            for(int a = offsets[u]; a < offsets[u + 1]; a++)
+            {
+                int v = targets[a];
+                if(r.residual(a) > 0)
+                {
+                    long d = dist[u] + costs[a] + potential[u] - potential[v];
+                    if(d < dist[v])
+                    {
+                        if(heap.contains(v))
+                        {
+                            heap.increase(v, dist[v] - d);
+                        }
+                        else
+                        {
+                            heap.insert(v, -d);
+                        }
+                        dist[v] = d;
+                    }
+                }
+            }
+        }
+        if(dist[sink] == INFINITY)
+        {
+            return false;
+        }
+        for(int v = 0; v < potential.length; v++)
+        {
+            potential[v] += Math.min(dist[v], dist[sink]);
+        }
+        return true;
+    }
+
+    /*
+     * Method that numbers the vertices by how many arcs with residual
+     * capacity and a reduced cost of 0 it takes to reach them from the
+     * source, the same way Dinic's algorithm layers the whole graph.
+     * @param r is the residual graph
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @param potential holds the potential of each vertex
+     * @param layers is filled with the layer of each vertex, or -1
+     * @param queue is used for the search
+     * @return whether the sink can be reached
+     */
+    private boolean admissibleLayers(ResidualGraph r, int source, int sink, long[] potential, int[] layers, int[] queue)
+    {
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] costs = r.getCosts();
+        Arrays.fill(layers, -1);
+        layers[source] = 0;
+        queue[0] = source;
+        int head = 0;
+        int tail = 1;
+        while(head < tail && layers[sink] == -1)
+        {
+            int u = queue[head++];
+            for(int a = offsets[u]; a < offsets[u + 1]; a++)
+            {
+                int v = targets[a];
+                if(layers[v] == -1 && r.residual(a) > 0 && costs[a] + potential[u] - potential[v] == 0)
+                {
+                    layers[v] = layers[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return layers[sink] != -1;
+    }
+
+    /*
+     * Method that finds an augmenting path through the layers that only
+     * uses arcs with a reduced cost of 0, so it is as cheap as the path
+     * Dijkstra's algorithm found.  Each vertex starts at its current arc,
+     * and the current arc is moved past arcs that lead nowhere so repeated
+     * searches do not look at them again.
+     * @param r is the residual graph
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @param potential holds the potential of each vertex
+     * @param layers holds the layer of each vertex
+     * @param current holds the next arc to try for each vertex
+     * @param parentArcs is filled with the arc used to reach each vertex
+     * @return whether a path to the sink was found
+     */
+    private boolean admissiblePath(ResidualGraph r, int source, int sink, long[] potential, int[] layers, int[] current, int[] parentArcs)
+    {
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] costs = r.getCosts();
+        int[] reverse = r.getReverse();
+        int u = source;
+        while(u != sink)
+        {
+            boolean advanced = false;
+            for(; current[u] < offsets[u + 1]; current[u]++)
+            {
+                int a = current[u];
+                int v = targets[a];
+                if(layers[v] == layers[u] + 1 && r.residual(a) > 0 && costs[a] + potential[u] - potential[v] == 0)
+                {
+                    parentArcs[v] = a;
+                    u = v;
+                    advanced = true;
+                    break;
+                }
+            }
+            if(!advanced)
+            {
+                if(u == source)
+                {
+                    return false;
+                }
+                u = targets[reverse[parentArcs[u]]];
+                current[u]++;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Method that finds the maximum flow of least total cost with successive
+     * shortest paths.  Each round finds the cost of the cheapest augmenting
+     * path with Dijkstra's algorithm and Johnson potentials, then runs
+     * Dinic's algorithm on the arcs with a reduced cost of 0 to send flow
+     * along every path of that cost before searching again.  Sending flow
+     * only adds arcs with a reduced cost of 0, so the reduced costs stay
+     * non-negative for the next round.
+     * @param g is the graph to find the min-cost max flow on
+     * @return the flow, its cost and its min cut, or null if it could not be run
+     */
+    public FlowResult minCostMaxFlow(Graph g, boolean t)
+    {
+        return minCostMaxFlow(g, t, g.getSource(), g.getSink());
+    }
+
+    /*
+     * Method that finds the min-cost max flow between any two vertices.
+     * @param g is the graph to find the min-cost max flow on
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @return the flow, its cost and its min cut, or null if it could not be run
+     */
+    public FlowResult minCostMaxFlow(Graph g, boolean t, int source, int sink)
+    {
+        if(g instanceof UndirectedGraph)
+        {
+            System.out.println("Min-cost flow needs a directed graph.");
+            return null;
+        }
+        ResidualGraph r = g.getResidual();
+        if(!validTerminals(r, source, sink))
+        {
+            return null;
+        }
+        r.reset();
+        int n = r.order();
+        long[] potential = new long[n];
+        if(!initialPotentials(r, source, potential))
+        {
+            System.out.println("The graph has a cycle of negative cost.");
+            return null;
+        }
+        long[] dist = new long[n];
+        int[] parentArcs = new int[n];
+        int[] layers = new int[n];
+        int[] queue = new int[n];
+        int[] current = new int[n];
+        IndexedMaxHeap heap = new IndexedMaxHeap(n);
+        int maxFlow = 0;
+        long cost = 0;
+        while(cheapestPath(r, source, sink, potential, dist, heap))
+        {
+            long unitCost = potential[sink] - potential[source];
+            while(admissibleLayers(r, source, sink, potential, layers, queue))
+            {
+                System.arraycopy(r.getOffsets(), 0, current, 0, n);
+                while(admissiblePath(r, source, sink, potential, layers, current, parentArcs))
+                {
+                    int min = bottleneck(r, source, sink, parentArcs);
+                    augment(r, source, sink, parentArcs, min);
+                    maxFlow += min;
+                    cost += min * unitCost;
+                    if(!t)
+                    {
+                        System.out.println("Augmenting Path: " + pathVertices(r, source, sink, parentArcs) + " ==> " + min + " at cost " + unitCost);
+                    }
+                }
+            }
+        }
+        if(!t)
+        {
+            System.out.println("---Generated Residual Matrix:---");
+            r.printMatrix();
+            System.out.println();
+        }
+        FlowResult result = new FlowResult(r, source, maxFlow, cost);
+        System.out.println("Optimal Flow: " + maxFlow);
+        System.out.println("Minimum Cost: " + cost);
+        g.printTaken();
+        printCutArcs(r, result);
+        return result;
+    }
+
+    /*
+     * Method that prints a cut the way the min cut algorithms report it:
+     * the two groups of vertices, the edges between them and their total.
+     * @param g is the graph the cut is in
+     * @param side is which group each vertex is in
+     * @param t is whether the visualizer is in timing mode
+     * @return the total capacity of the edges between the groups
+     */
+    private int printCut(Graph g, boolean[] side, boolean t)
+    {
+        ResidualGraph r = g.getResidual();
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] capacities = r.getCapacities();
+        ArrayList<Integer> groupA = new ArrayList<Integer>();
+        ArrayList<Integer> groupB = new ArrayList<Integer>();
+        for(int i = 0; i < side.length; i++)
+        {
+            if(side[i] == side[0])
+            {
+                groupA.add(i);
+            }
+            else
+            {
+                groupB.add(i);
+            }
+        }
+        if(!t)
+        {
+            System.out.println("\nFinal Two Groups of Vertices: ");
             System.out.println("Group A: " + groupA);
             System.out.println("Group B: " + groupB);
         }
+        int maxFlow = 0;
         System.out.println("\nEdges between the two groups of vertices: ");
         for(int i = 0; i < g.order(); i++)
         {
-            for(int j = 0; j < g.order(); j++)
+            for(int a = offsets[i]; a < offsets[i + 1]; a++)
             {
-                if(verts[i] != verts[j] && adjMatrix[i][j] != 0)
+                int j = targets[a];
+                if(side[i] != side[j] && capacities[a] != 0)
                 {
-                    System.out.println("(" + i + ", " + j + ") : " + adjMatrix[i][j]);
-                    maxFlow += adjMatrix[i][j];
+                    System.out.println("(" + i + ", " + j + ") : " + capacities[a]);
+                    maxFlow += capacities[a];
                 }
             }
         }
@@ -497,7 +1779,218 @@ public class Algorithms
             maxFlow /= 2;
         }
         System.out.println("Optimal Flow: " + maxFlow);
+        return maxFlow;
+    }
+
+    /*
+     * Method that lists each edge of a graph once, for the contraction
+     * algorithms.  Directed edges keep their forward arc and undirected
+     * edges keep the lower arc of their pair; loops are left out.
+     * @param g is the graph to list the edges of
+     * @param starts is filled with the first vertex of each edge
+     * @param ends is filled with the second vertex of each edge
+     * @param weights is filled with the capacity of each edge
+     * @return the number of edges listed
+     */
+    private int collectEdges(Graph g, int[] starts, int[] ends, int[] weights)
+    {
+        ResidualGraph r = g.getResidual();
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] capacities = r.getCapacities();
+        int[] reverse = r.getReverse();
+        boolean undirected = g instanceof UndirectedGraph;
+        int m = 0;
+        for(int i = 0; i < r.order(); i++)
+        {
+            for(int a = offsets[i]; a < offsets[i + 1]; a++)
+            {
+                if(capacities[a] > 0 && targets[a] != i && (!undirected || a < reverse[a]))
+                {
+                    starts[m] = i;
+                    ends[m] = targets[a];
+                    weights[m] = capacities[a];
+                    m++;
+                }
+            }
+        }
+        return m;
+    }
+
+    /*
+     * Method that executes Karger's Min-Cut algorithm on a graph.  Edges are
+     * contracted one at a time, each picked at random in proportion to its
+     * capacity from a Fenwick tree, and their ends are merged with a
+     * union-find until two groups are left.  An edge is taken out of the
+     * tree once it is picked, so a contraction takes O(E log E) time.
+     * @param g is the graph to find the max flow on
+     * @return the graph after Karger's Min-Cut algorithm is done
+     */
+    public Graph kargerMinCut(Graph g, boolean t)
+    {
+        int arcs = g.getResidual().arcCount();
+        int[] starts = new int[arcs / 2];
+        int[] ends = new int[arcs / 2];
+        int[] weights = new int[arcs / 2];
+        int numEdges = collectEdges(g, starts, ends, weights);
+        FenwickTree edges = new FenwickTree(weights, numEdges);
+        UnionFind groups = new UnionFind(g.order());
+        SplittableRandom random = new SplittableRandom();
+        long total = edges.total();
+        while(groups.groups() > 2 && total > 0)
+        {
+            int i = edges.find(random.nextLong(total));
+            total -= edges.weight(i);
+            edges.remove(i);
+            if(groups.union(starts[i], ends[i]) && !t)
+            {
+                System.out.println("Combined vertices " + starts[i] + " and " + ends[i]);
+            }
+        }
+        boolean[] side = new boolean[g.order()];
+        int root = groups.find(0);
+        for(int i = 0; i < side.length; i++)
+        {
+            side[i] = groups.find(i) != root;
+        }
+        printCut(g, side, t);
+        return g;
+    }
+
+    /*
+     * Method that runs the Karger-Stein min cut algorithm, with enough
+     * independent trials spread over several threads to find the min cut
+     * with the given probability.
+     * @param g is the graph to find the min cut on
+     * @param probability is the chance of finding the min cut that is wanted
+     * @param threads is the number of threads to use
+     * @return the graph after the Karger-Stein algorithm is done
+     */
+    public Graph kargerStein(Graph g, boolean t, double probability, int threads)
+    {
+        ResidualGraph r = g.getResidual();
+        int n = r.order();
+        if(n < 2)
+        {
+            System.out.println("A cut needs at least two vertices.");
+            return g;
+        }
+        int[] starts = new int[r.arcCount() / 2];
+        int[] ends = new int[r.arcCount() / 2];
+        int[] weights = new int[r.arcCount() / 2];
+        int m = collectEdges(g, starts, ends, weights);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        KargerStein solver = new KargerStein(pool);
+        KargerStein.Cut cut;
+        try
+        {
+            cut = solver.minCut(n, m, starts, ends, weights, probability, new Random().nextLong());
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        if(!t)
+        {
+            System.out.println("Trials: " + solver.getTrials());
+        }
+        printCut(g, cut.getSide(), t);
         return g;
     }
-}
 
+    /*
+     * Method that executes the Stoer-Wagner algorithm on an undirected graph.
+     * Each phase adds the vertices to a set one at a time, always taking the
+     * one joined to the set by the most capacity, and the last two vertices
+     * added are merged.  The weight joining the last vertex to the rest is a
+     * cut, and the smallest of these is the exact global min cut.  With an
+     * indexed heap this takes O(V E log V) time and no randomness.
+     * @param g is the graph to find the min cut on
+     * @return the graph after the Stoer-Wagner algorithm is done
+     */
+    public Graph stoerWagner(Graph g, boolean t)
+    {
+        if(!(g instanceof UndirectedGraph))
+        {
+            System.out.println("Stoer-Wagner needs an undirected graph.");
+            return g;
+        }
+        ResidualGraph r = g.getResidual();
+        int n = r.order();
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] capacities = r.getCapacities();
+        //Each merged vertex is a linked list of the original vertices in it
+        int[] owner = new int[n];
+        int[] nextMember = new int[n];
+        int[] lastMember = new int[n];
+        boolean[] merged = new boolean[n];
+        boolean[] added = new boolean[n];
+        boolean[] bestSide = new boolean[n];
+        for(int i = 0; i < n; i++)
+        {
+            owner[i] = i;
+            nextMember[i] = -1;
+            lastMember[i] = i;
+        }
+        IndexedMaxHeap heap = new IndexedMaxHeap(n);
+        long best = Long.MAX_VALUE;
+        for(int phase = 1; phase < n; phase++)
+        {
+            for(int v = 0; v < n; v++)
+            {
+                added[v] = false;
+                if(!merged[v])
+                {
+                    heap.insert(v, 0);
+                }
+            }
+            int prev = -1;
+            int last = -1;
+            long cutOfPhase = 0;
+            while(!heap.isEmpty())
+            {
+                int u = heap.extractMax();
+                prev = last;
+                last = u;
+                cutOfPhase = heap.key(u);
+                added[u] = true;
+                for(int x = u; x != -1; x = nextMember[x])
+                {
+                    for(int a = offsets[x]; a < offsets[x + 1]; a++)
+                    {
+                        int w = owner[targets[a]];
+                        if(!added[w] && capacities[a] > 0)
+                        {
+                            heap.increase(w, capacities[a]);
+                        }
+                    }
+                }
+            }
+            if(cutOfPhase < best)
+            {
+                best = cutOfPhase;
+                Arrays.fill(bestSide, false);
+                for(int x = last; x != -1; x = nextMember[x])
+                {
+                    bestSide[x] = true;
+                }
+            }
+            //MERGE THE LAST TWO VERTICES
+            for(int x = last; x != -1; x = nextMember[x])
+            {
+                owner[x] = prev;
+            }
+            nextMember[lastMember[prev]] = last;
+            lastMember[prev] = lastMember[last];
+            merged[last] = true;
+            if(!t)
+            {
+                System.out.println("Cut of phase " + phase + ": " + cutOfPhase);
+                System.out.println("Combined vertices " + prev + " and " + last);
+            }
+        }
+        printCut(g, bestSide, t);
+        return g;
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * BinaryGraph.java
+ * This class saves graphs in a binary format and loads them back, so a
+ * graph that is used often only has to be parsed from text once.
+ *
+ * The file holds the residual graph exactly as it is kept in memory, as
+ * little-endian ints:
+ *   - A header of 8 ints: the magic number "NFVG", the format version,
+ *     flags, the number of vertices, the number of edges, the source, the
+ *     sink, and one int kept for later.  Flag bit 0 is set for an
+ *     undirected graph, and bit 1 when the source and sink are not vertex
+ *     0 and the last vertex.
+ *   - The CSR offsets, one more than the number of vertices.
+ *   - The targets, capacities, mates, edge ids and costs of the arcs,
+ *     two for each edge.
+ *
+ * Loading maps the file into memory and copies each array out of the map
+ * with one bulk get.  The arrays cannot be used in place, because every
+ * algorithm works on int arrays and Java cannot put one over mapped
+ * memory, but nothing is parsed and the arcs do not have to be sorted
+ * into rows again, so loading runs at the speed of a memory copy and one
+ * pass that checks the rows and mates hang together.
+ *
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+public class BinaryGraph
+{
+    //"NFVG" read as a little-endian int
+    private static final int MAGIC = 0x4756464E;
+    private static final int VERSION = 1;
+    private static final int UNDIRECTED = 1;
+    private static final int TERMINALS = 2;
+    private static final int HEADER_INTS = 8;
+    //Largest part of the file mapped or written at once, in bytes
+    private static final int WINDOW = 1 << 30;
+    private static final int CHUNK = 1 << 20;
+
+    /*
+     * Returns whether a file starts with the magic number of this format.
+     * @param fileName is the file to look at
+     * @return returns true if the file is a binary graph
+     * @throws FileNotFoundException if the file cannot be found
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isBinary(String fileName) throws IOException
+    {
+        try (FileInputStream in = new FileInputStream(fileName);
+             FileChannel channel = in.getChannel())
+        {
+            if (channel.size() < 4)
+            {
+                return false;
+            }
+            int[] first = new int[1];
+            readInts(channel, 0, first);
+            return first[0] == MAGIC;
+        }
+    }
+
+    /*
+     * Loads a graph from a binary file.
+     * @param fileName is the file to load
+     * @return returns a directed or undirected graph, as the file says
+     * @throws FileNotFoundException if the file cannot be found
+     * @throws IOException if the file is not a binary graph or is cut short
+     */
+    public static Graph read(String fileName) throws IOException
+    {
+        try (FileInputStream in = new FileInputStream(fileName);
+             FileChannel channel = in.getChannel())
+        {
+            int[] header = new int[HEADER_INTS];
+            if (channel.size() < 4L * HEADER_INTS)
+            {
+                throw new IOException(fileName + " is too short to be a binary graph.");
+            }
+            readInts(channel, 0, header);
+            if (header[0] != MAGIC)
+            {
+                throw new IOException(fileName + " is not a binary graph.");
+            }
+            if (header[1] != VERSION)
+            {
+                throw new IOException(fileName + " is version " + header[1] + " of the binary graph format, not "
+                        + VERSION + ".");
+            }
+            int n = header[3];
+            int arcs = 2 * header[4];
+            if (n < 0 || header[4] < 0 || arcs < 0 || channel.size() != 4L * (HEADER_INTS + n + 1 + 5L * arcs))
+            {
+                throw new IOException(fileName + " does not have the size its header says.");
+            }
+            long at = 4L * HEADER_INTS;
+            int[] offsets = new int[n + 1];
+            at = readInts(channel, at, offsets);
+            int[] targets = new int[arcs];
+            at = readInts(channel, at, targets);
+            int[] capacities = new int[arcs];
+            at = readInts(channel, at, capacities);
+            int[] reverse = new int[arcs];
+            at = readInts(channel, at, reverse);
+            int[] edgeIds = new int[arcs];
+            at = readInts(channel, at, edgeIds);
+            int[] costs = new int[arcs];
+            readInts(channel, at, costs);
+            check(fileName, n, offsets, targets, reverse, edgeIds);
+            ResidualGraph r = new ResidualGraph(n, offsets, targets, capacities, reverse, edgeIds, costs);
+            Graph g = (header[2] & UNDIRECTED) != 0 ? new UndirectedGraph(r) : new DirectedGraph(r);
+            if ((header[2] & TERMINALS) != 0)
+            {
+                if (header[5] < 0 || header[5] >= n || header[6] < 0 || header[6] >= n)
+                {
+                    throw new IOException(fileName + " has a source or sink outside the graph.");
+                }
+                g.setTerminals(header[5], header[6]);
+            }
+            return g;
+        }
+    }
+
+    /*
+     * Checks that the arrays read from a file make a residual graph the
+     * algorithms can work on, so a corrupt file is caught when it is
+     * loaded rather than inside a solver.  The rows must be in order and
+     * cover every arc, every arc must stay inside the graph, and every
+     * arc's mate must be an arc back to its row with the same edge, with
+     * each edge used by exactly one pair.
+     * @param fileName is the file the arrays came from
+     * @param n is the number of vertices
+     * @param offsets is where each row starts
+     * @param targets is the vertex each arc goes to
+     * @param reverse is the mate of each arc
+     * @param edgeIds is the edge of each arc
+     * @throws IOException if any check fails
+     */
+    private static void check(String fileName, int n, int[] offsets, int[] targets, int[] reverse, int[] edgeIds)
+            throws IOException
+    {
+        int arcs = targets.length;
+        if (offsets[0] != 0 || offsets[n] != arcs)
+        {
+            throw new IOException(fileName + " has offsets that do not cover its arcs.");
+        }
+        for (int v = 0; v < n; v++)
+        {
+            if (offsets[v] > offsets[v + 1])
+            {
+                throw new IOException(fileName + " has offsets that go down at vertex " + v + ".");
+            }
+        }
+        boolean[] used = new boolean[arcs / 2];
+        for (int u = 0; u < n; u++)
+        {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++)
+            {
+                int v = targets[a];
+                if (v < 0 || v >= n)
+                {
+                    throw new IOException(fileName + " has arc " + a + " going outside the graph.");
+                }
+                int b = reverse[a];
+                if (b < 0 || b >= arcs || b == a || reverse[b] != a || b < offsets[v] || b >= offsets[v + 1]
+                        || targets[b] != u)
+                {
+                    throw new IOException(fileName + " has arc " + a + " without a mate going back to it.");
+                }
+                int e = edgeIds[a];
+                if (e < 0 || e >= used.length || edgeIds[b] != e)
+                {
+                    throw new IOException(fileName + " has arc " + a + " with a bad edge id.");
+                }
+                if (a < b)
+                {
+                    if (used[e])
+                    {
+                        throw new IOException(fileName + " uses edge " + e + " for more than one pair of arcs.");
+                    }
+                    used[e] = true;
+                }
+            }
+        }
+    }
+
+    /*
+     * Saves a graph to a binary file.
+     * @param g is the graph to save
+     * @param fileName is the file to write, which is replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Graph g, String fileName) throws IOException
+    {
+        ResidualGraph r = g.getResidual();
+        try (FileOutputStream out = new FileOutputStream(fileName);
+             FileChannel channel = out.getChannel())
+        {
+            int[] header = new int[HEADER_INTS];
+            header[0] = MAGIC;
+            header[1] = VERSION;
+            header[2] = g instanceof UndirectedGraph ? UNDIRECTED : 0;
+            header[3] = r.order();
+            header[4] = r.arcCount() / 2;
+            if (g.getSource() != 0 || g.getSink() != r.order() - 1)
+            {
+                header[2] |= TERMINALS;
+                header[5] = g.getSource();
+                header[6] = g.getSink();
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+            writeInts(channel, buffer, header);
+            writeInts(channel, buffer, r.getOffsets());
+            writeInts(channel, buffer, r.getTargets());
+            writeInts(channel, buffer, r.getCapacities());
+            writeInts(channel, buffer, r.getReverse());
+            writeInts(channel, buffer, r.getEdgeIds());
+            writeInts(channel, buffer, r.getCosts());
+        }
+    }
+
+    /*
+     * Fills an array from the file, mapping a window of it at a time.
+     * @param channel is the open file
+     * @param at is the byte the array starts at
+     * @param values is the array to fill
+     * @return returns the byte after the array
+     * @throws IOException if the file cannot be mapped
+     */
+    private static long readInts(FileChannel channel, long at, int[] values) throws IOException
+    {
+        int done = 0;
+        while (done < values.length)
+        {
+            int count = Math.min(values.length - done, WINDOW / 4);
+            IntBuffer ints = channel.map(FileChannel.MapMode.READ_ONLY, at, 4L * count)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            ints.get(values, done, count);
+            done += count;
+            at += 4L * count;
+        }
+        return at;
+    }
+
+    /*
+     * Writes an array to the end of the file through a buffer.
+     * @param channel is the open file
+     * @param buffer is the buffer to write through
+     * @param values is the array to write
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException
+    {
+        int done = 0;
+        while (done < values.length)
+        {
+            int count = Math.min(values.length - done, CHUNK / 4);
+            buffer.clear();
+            buffer.asIntBuffer().put(values, done, count);
+            buffer.limit(4 * count);
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+            done += count;
+        }
+    }
+}
@@ -0,0 +1,684 @@
+/*
+ * CrossCheck.java
+ * This class checks the flow engines against each other and the graph
+ * files against what was written to them.
+ *
+ * Each max flow engine is run on small random graphs, directed and
+ * undirected, between random terminals.  Every flow must fit its
+ * capacities, be conserved at every vertex but the source and sink, have
+ * the value Edmonds-Karp found, and come with a cut whose capacity is that
+ * value.  Min-cost flows, which only directed graphs have, must also leave
+ * no cycle of negative cost in the residual graph.  The engines for
+ * special graphs get graphs of their kind: Unit-Capacity Dinic's gets
+ * capacities of 1 and Hopcroft-Karp gets assignment problems.  The global min cuts of Stoer-Wagner and
+ * Karger-Stein must equal the smallest max flow out of vertex 0, and the
+ * Gomory-Hu tree must give the max flow between every pair.
+ *
+ * The files are checked by round trips: binary graphs are written and read
+ * back, DIMACS problems are written plain and gzipped and parsed, and an
+ * edge list big enough to be split into chunks is parsed as text.
+ *
+ * Run it with "java CrossCheck [trials] [seed]".  Each failed check is
+ * printed, and the exit status is 1 if any failed.
+ *
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+public class CrossCheck
+{
+    //The solvers print as they go, so their output is sent nowhere while they run
+    private static final PrintStream OUT = System.out;
+    private static final PrintStream NOWHERE = new PrintStream(OutputStream.nullOutputStream());
+    private static final int MAX_VERTICES = 10;
+    private static final int MAX_CAPACITY = 10;
+    private static final int MAX_COST = 5;
+
+    private Algorithms algorithms;
+    private Random random;
+    private int checks;
+    private int failures;
+
+    /*
+     * Runs every check and prints how many failed.
+     * @param args holds the number of random graphs of each kind and the
+     *        seed, which default to 300 and 1
+     * @throws IOException if a file for the round trips cannot be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int trials = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        CrossCheck c = new CrossCheck(seed);
+        c.denseParallel();
+        for (int i = 0; i < trials; i++)
+        {
+            c.maxFlows(i);
+            c.unitFlows(i);
+            c.assignment(i);
+            c.minCuts(i);
+        }
+        for (int i = 0; i < trials / 10 + 1; i++)
+        {
+            c.gomoryHu(i);
+            c.binaryRoundTrip(i);
+            c.dimacsRoundTrip(i, false);
+            c.dimacsRoundTrip(i, true);
+        }
+        c.textChunks();
+        OUT.println(c.checks + " checks, " + c.failures + " failed");
+        if (c.failures > 0)
+        {
+            System.exit(1);
+        }
+    }
+
+    /*
+     * Constructor that makes a checker with no checks run yet.
+     * @param seed is the seed of the random graphs
+     */
+    public CrossCheck(long seed)
+    {
+        algorithms = new Algorithms();
+        random = new Random(seed);
+    }
+
+    /*
+     * Checks the parallel push-relabel on a source joined to k vertices
+     * that all join each other and the sink.  Many vertices start active
+     * and push to each other in the first round, which once put a vertex
+     * on the next round's list twice.
+     */
+    private void denseParallel()
+    {
+        for (int k : new int[] {10, 30})
+        {
+            Graph g = new DirectedGraph(k + 2);
+            for (int i = 1; i <= k; i++)
+            {
+                g.addEdge(0, i, 30);
+                g.addEdge(i, k + 1, 1);
+                for (int j = 1; j <= k; j++)
+                {
+                    if (i != j)
+                    {
+                        g.addEdge(i, j, 1);
+                    }
+                }
+            }
+            System.setOut(NOWHERE);
+            int expected = algorithms.dinic(g, true).getValue();
+            System.setOut(OUT);
+            for (int threads : new int[] {1, 4})
+            {
+                run("parallel push-relabel, " + threads + " threads, dense k=" + k, g, 0, k + 1, expected,
+                        () -> algorithms.parallelPushRelabel(g, true, threads));
+            }
+        }
+    }
+
+    /*
+     * Checks every general max flow engine on one random graph.
+     * @param trial is the number of the graph, for the messages
+     */
+    private void maxFlows(int trial)
+    {
+        boolean undirected = random.nextBoolean();
+        int n = 2 + random.nextInt(MAX_VERTICES - 1);
+        int[][] edges = randomEdges(n, random.nextInt(3 * n + 1), MAX_CAPACITY, MAX_COST);
+        Graph g = build(n, edges, undirected);
+        int s = random.nextInt(n);
+        int t = (s + 1 + random.nextInt(n - 1)) % n;
+        g.setTerminals(s, t);
+        String name = (undirected ? "undirected" : "directed") + " graph " + trial + ", ";
+        int expected = reference(g, s, t);
+        run(name + "Ford-Fulkerson", g, s, t, expected, () -> algorithms.fordFulkerson(g, true, false));
+        run(name + "Ford-Fulkerson with scaling", g, s, t, expected, () -> algorithms.fordFulkerson(g, true, true));
+        run(name + "Dinic's", g, s, t, expected, () -> algorithms.dinic(g, true));
+        run(name + "FIFO push-relabel", g, s, t, expected, () -> algorithms.pushRelabel(g, true, false));
+        run(name + "highest-label push-relabel", g, s, t, expected, () -> algorithms.pushRelabel(g, true, true));
+        run(name + "Boykov-Kolmogorov", g, s, t, expected, () -> algorithms.boykovKolmogorov(g, true));
+        run(name + "parallel push-relabel", g, s, t, expected, () -> algorithms.parallelPushRelabel(g, true, 1));
+        run(name + "parallel push-relabel, 3 threads", g, s, t, expected,
+                () -> algorithms.parallelPushRelabel(g, true, 3));
+        run(name + "auto select", g, s, t, expected, () -> algorithms.auto(g, true, new GraphStats(g), 2));
+        if (!undirected)
+        {
+            FlowResult cheapest = run(name + "min-cost max-flow", g, s, t, expected,
+                    () -> algorithms.minCostMaxFlow(g, true));
+            if (cheapest != null)
+            {
+                checkCheapest(g, cheapest, name + "min-cost max-flow");
+            }
+        }
+
+        System.setOut(NOWHERE);
+        ReducedGraph reduced = algorithms.reduce(g, true);
+        System.setOut(OUT);
+        Graph h = reduced.getGraph();
+        run(name + "reduced graph", h, reduced.getSource(), reduced.getSink(), expected,
+                () -> algorithms.edmondsKarp(h, true, reduced.getSource(), reduced.getSink()));
+    }
+
+    /*
+     * Checks Unit-Capacity Dinic's on a random graph whose capacities are
+     * all 1.
+     * @param trial is the number of the graph, for the messages
+     */
+    private void unitFlows(int trial)
+    {
+        boolean undirected = random.nextBoolean();
+        int n = 2 + random.nextInt(MAX_VERTICES - 1);
+        Graph g = build(n, randomEdges(n, random.nextInt(4 * n + 1), 1, 0), undirected);
+        int s = random.nextInt(n);
+        int t = (s + 1 + random.nextInt(n - 1)) % n;
+        g.setTerminals(s, t);
+        String name = (undirected ? "undirected" : "directed") + " unit graph " + trial + ", ";
+        int expected = reference(g, s, t);
+        run(name + "unit-capacity Dinic's", g, s, t, expected, () -> algorithms.unitDinic(g, true));
+    }
+
+    /*
+     * Checks Hopcroft-Karp on a random assignment problem: vertex 0 joined
+     * to every left vertex, random edges from the left to the right, and
+     * every right vertex joined to the last vertex, all with capacity 1.
+     * @param trial is the number of the graph, for the messages
+     */
+    private void assignment(int trial)
+    {
+        int left = 1 + random.nextInt(MAX_VERTICES / 2);
+        int right = 1 + random.nextInt(MAX_VERTICES / 2);
+        int n = left + right + 2;
+        Graph g = new DirectedGraph(n);
+        for (int u = 1; u <= left; u++)
+        {
+            g.addEdge(0, u, 1);
+            for (int v = left + 1; v <= left + right; v++)
+            {
+                if (random.nextInt(5) < 2)
+                {
+                    g.addEdge(u, v, 1);
+                }
+            }
+        }
+        for (int v = left + 1; v <= left + right; v++)
+        {
+            g.addEdge(v, n - 1, 1);
+        }
+        int expected = reference(g, 0, n - 1);
+        run("assignment " + trial + ", Hopcroft-Karp", g, 0, n - 1, expected, () -> algorithms.hopcroftKarp(g, true));
+    }
+
+    /*
+     * Checks Stoer-Wagner and Karger-Stein on a random undirected graph.
+     * The global min cut is the smallest max flow from vertex 0 to any
+     * other vertex, since some vertex is on the other side from 0.
+     * @param trial is the number of the graph, for the messages
+     */
+    private void minCuts(int trial)
+    {
+        int n = 2 + random.nextInt(MAX_VERTICES - 1);
+        int[][] edges = randomEdges(n, random.nextInt(3 * n + 1), MAX_CAPACITY, 0);
+        Graph g = build(n, edges, true);
+        long expected = Long.MAX_VALUE;
+        for (int v = 1; v < n; v++)
+        {
+            expected = Math.min(expected, reference(g, 0, v));
+        }
+        String name = "undirected graph " + trial + ", ";
+
+        //Stoer-Wagner only prints its cut, so its value is read back from what it prints
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printed, true));
+        try
+        {
+            algorithms.stoerWagner(g, true);
+            System.setOut(OUT);
+            String text = printed.toString();
+            int at = text.lastIndexOf("Optimal Flow: ");
+            long found = at < 0 ? -1 : Long.parseLong(text.substring(at + 14).trim());
+            check(found == expected, name + "Stoer-Wagner found " + found + " instead of " + expected);
+        }
+        catch (RuntimeException e)
+        {
+            System.setOut(OUT);
+            check(false, name + "Stoer-Wagner threw " + e);
+        }
+
+        int[] starts = new int[edges[0].length];
+        int[] ends = new int[edges[0].length];
+        int[] weights = new int[edges[0].length];
+        int m = 0;
+        for (int e = 0; e < edges[0].length; e++)
+        {
+            if (edges[0][e] != edges[1][e])
+            {
+                starts[m] = edges[0][e];
+                ends[m] = edges[1][e];
+                weights[m] = edges[2][e];
+                m++;
+            }
+        }
+        try
+        {
+            KargerStein solver = new KargerStein(ForkJoinPool.commonPool());
+            KargerStein.Cut cut = solver.minCut(n, m, starts, ends, weights, 1 - 1e-9, random.nextLong());
+            boolean[] side = cut.getSide();
+            long crossing = 0;
+            boolean split = false;
+            for (int e = 0; e < m; e++)
+            {
+                if (side[starts[e]] != side[ends[e]])
+                {
+                    crossing += weights[e];
+                }
+            }
+            for (int v = 1; v < n; v++)
+            {
+                split |= side[v] != side[0];
+            }
+            check(cut.getValue() == expected, name + "Karger-Stein found " + cut.getValue() + " instead of "
+                    + expected);
+            check(split && crossing == cut.getValue(), name + "Karger-Stein's sides cut " + crossing + ", not "
+                    + cut.getValue());
+        }
+        catch (RuntimeException e)
+        {
+            check(false, name + "Karger-Stein threw " + e);
+        }
+    }
+
+    /*
+     * Checks that a Gomory-Hu tree gives the max flow between every pair
+     * of vertices of a random undirected graph.
+     * @param trial is the number of the graph, for the messages
+     */
+    private void gomoryHu(int trial)
+    {
+        int n = 2 + random.nextInt(MAX_VERTICES - 1);
+        Graph g = build(n, randomEdges(n, random.nextInt(3 * n + 1), MAX_CAPACITY, 0), true);
+        String name = "undirected graph " + trial + ", Gomory-Hu tree";
+        try
+        {
+            System.setOut(NOWHERE);
+            GomoryHuTree tree = algorithms.gomoryHu(g, true, 2);
+            System.setOut(OUT);
+            for (int u = 0; u < n; u++)
+            {
+                for (int v = u + 1; v < n; v++)
+                {
+                    int expected = reference(g, u, v);
+                    check(tree.minCut(u, v) == expected, name + " gives " + tree.minCut(u, v) + " between " + u
+                            + " and " + v + " instead of " + expected);
+                }
+            }
+        }
+        catch (RuntimeException e)
+        {
+            System.setOut(OUT);
+            check(false, name + " threw " + e);
+        }
+    }
+
+    /*
+     * Checks that a random graph written as a binary file reads back the
+     * same, with its kind and terminals.
+     * @param trial is the number of the graph, for the messages
+     * @throws IOException if the file cannot be written
+     */
+    private void binaryRoundTrip(int trial) throws IOException
+    {
+        boolean undirected = random.nextBoolean();
+        int n = 2 + random.nextInt(MAX_VERTICES - 1);
+        Graph g = build(n, randomEdges(n, random.nextInt(3 * n + 1), MAX_CAPACITY, MAX_COST), undirected);
+        if (random.nextBoolean())
+        {
+            int s = random.nextInt(n);
+            g.setTerminals(s, (s + 1 + random.nextInt(n - 1)) % n);
+        }
+        String name = (undirected ? "undirected" : "directed") + " graph " + trial + ", binary file";
+        File file = File.createTempFile("crosscheck", ".nfg");
+        file.deleteOnExit();
+        BinaryGraph.write(g, file.getPath());
+        Graph read = BinaryGraph.read(file.getPath());
+        check((read instanceof UndirectedGraph) == undirected, name + " changes the kind of graph");
+        check(read.getSource() == g.getSource() && read.getSink() == g.getSink(), name + " changes the terminals");
+        check(sameArcs(g.getResidual(), read.getResidual()), name + " changes the arcs");
+        check(reference(g, g.getSource(), g.getSink()) == reference(read, read.getSource(), read.getSink()),
+                name + " changes the max flow");
+        file.delete();
+    }
+
+    /*
+     * Checks that a random directed graph written as a DIMACS problem is
+     * parsed back with the same arcs and terminals.  A comment holding a
+     * 0xFF byte sits between two arc lines, since that byte once read as
+     * the end of the file.
+     * @param trial is the number of the graph, for the messages
+     * @param gzip is whether to compress the file
+     * @throws IOException if the file cannot be written
+     */
+    private void dimacsRoundTrip(int trial, boolean gzip) throws IOException
+    {
+        int n = 2 + random.nextInt(MAX_VERTICES - 1);
+        int[][] edges = randomEdges(n, random.nextInt(3 * n + 1), MAX_CAPACITY, 0);
+        int m = edges[0].length;
+        int s = random.nextInt(n);
+        int t = (s + 1 + random.nextInt(n - 1)) % n;
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        text.write(("c graph " + trial + "\np max " + n + " " + m + "\nn " + (s + 1) + " s\nn " + (t + 1) + " t\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        for (int e = 0; e < m; e++)
+        {
+            text.write(("a " + (edges[0][e] + 1) + " " + (edges[1][e] + 1) + " " + edges[2][e] + "\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            if (e == 0)
+            {
+                text.write(new byte[] {'c', ' ', (byte) 0xFF, (byte) 0xFF, '\n'});
+            }
+        }
+        File file = File.createTempFile("crosscheck", gzip ? ".max.gz" : ".max");
+        file.deleteOnExit();
+        try (OutputStream out = gzip ? new GZIPOutputStream(new FileOutputStream(file)) : new FileOutputStream(file))
+        {
+            text.writeTo(out);
+        }
+        String name = "graph " + trial + ", " + (gzip ? "gzipped " : "") + "DIMACS file";
+        try
+        {
+            check(DimacsParser.isDimacs(file.getPath()), name + " is not seen as DIMACS");
+            DimacsParser p = new DimacsParser(file.getPath());
+            check(p.getVertices() == n && p.getEdges() == m, name + " reads " + p.getVertices() + " vertices and "
+                    + p.getEdges() + " arcs instead of " + n + " and " + m);
+            check(p.getSource() == s && p.getSink() == t, name + " changes the terminals");
+            check(sameEdges(edges, p.getStarts(), p.getEnds(), p.getCaps(), null, p.getEdges()),
+                    name + " changes the arcs");
+        }
+        catch (RuntimeException e)
+        {
+            check(false, name + " threw " + e);
+        }
+        file.delete();
+    }
+
+    /*
+     * Checks that an edge list big enough to be parsed in several chunks
+     * reads back the same, with blank lines, edges with and without costs,
+     * and lines after the one that ends the graph that must be ignored.
+     * @throws IOException if the file cannot be written
+     */
+    private void textChunks() throws IOException
+    {
+        int n = 1000;
+        int[][] edges = randomEdges(n, 300000, 1000000, MAX_COST);
+        int m = edges[0].length;
+        File file = File.createTempFile("crosscheck", ".txt");
+        file.deleteOnExit();
+        StringBuilder text = new StringBuilder();
+        text.append(n).append('\n');
+        for (int e = 0; e < m; e++)
+        {
+            text.append(edges[0][e]).append(' ').append(edges[1][e]).append(' ').append(edges[2][e]);
+            if (edges[3][e] != 0)
+            {
+                text.append(' ').append(edges[3][e]);
+            }
+            text.append(e % 1000 == 0 ? "\n\n" : "\n");
+        }
+        text.append("-1\nnot an edge\n");
+        try (OutputStream out = new FileOutputStream(file))
+        {
+            out.write(text.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+        String name = "edge list of " + m + " edges";
+        try
+        {
+            GraphParser p = new GraphParser(file.getPath());
+            check(p.getVertices() == n && p.getEdges() == m, name + " reads " + p.getVertices() + " vertices and "
+                    + p.getEdges() + " edges");
+            check(sameEdges(edges, p.getStarts(), p.getEnds(), p.getCaps(), p.getCosts(), p.getEdges()),
+                    name + " changes the edges");
+        }
+        catch (RuntimeException e)
+        {
+            check(false, name + " threw " + e);
+        }
+        file.delete();
+    }
+
+    /*
+     * Makes random edges, loops and parallel edges included.
+     * @param n is the number of vertices
+     * @param m is the number of edges
+     * @param maxCapacity is the largest capacity, the smallest being 1
+     * @param maxCost is the largest cost, the smallest being 0
+     * @return returns the starts, ends, capacities and costs of the edges
+     */
+    private int[][] randomEdges(int n, int m, int maxCapacity, int maxCost)
+    {
+        int[][] edges = new int[4][m];
+        for (int e = 0; e < m; e++)
+        {
+            edges[0][e] = random.nextInt(n);
+            edges[1][e] = random.nextInt(n);
+            edges[2][e] = 1 + random.nextInt(maxCapacity);
+            edges[3][e] = random.nextInt(maxCost + 1);
+        }
+        return edges;
+    }
+
+    /*
+     * Builds a graph from edges.
+     * @param n is the number of vertices
+     * @param edges holds the starts, ends, capacities and costs
+     * @param undirected is whether the graph is undirected
+     * @return returns the graph
+     */
+    private Graph build(int n, int[][] edges, boolean undirected)
+    {
+        Graph g = undirected ? new UndirectedGraph(n) : new DirectedGraph(n);
+        for (int e = 0; e < edges[0].length; e++)
+        {
+            g.addEdge(edges[0][e], edges[1][e], edges[2][e], edges[3][e]);
+        }
+        return g;
+    }
+
+    /*
+     * Finds the max flow with Edmonds-Karp, which the other engines are
+     * checked against.
+     * @param g is the graph
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @return returns the value of the max flow
+     */
+    private int reference(Graph g, int source, int sink)
+    {
+        System.setOut(NOWHERE);
+        int value = algorithms.edmondsKarp(g, true, source, sink).getValue();
+        System.setOut(OUT);
+        return value;
+    }
+
+    /*
+     * Runs an engine and checks the flow it finds.
+     * @param what names the run, for the messages
+     * @param g is the graph the engine runs on
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @param expected is the value the flow should have
+     * @param engine runs the engine
+     * @return returns the flow, or null if the engine failed
+     */
+    private FlowResult run(String what, Graph g, int source, int sink, int expected, Supplier<FlowResult> engine)
+    {
+        FlowResult f;
+        try
+        {
+            System.setOut(NOWHERE);
+            f = engine.get();
+            System.setOut(OUT);
+        }
+        catch (RuntimeException e)
+        {
+            System.setOut(OUT);
+            check(false, what + " threw " + e);
+            return null;
+        }
+        if (f == null)
+        {
+            check(false, what + " gave no flow");
+            return null;
+        }
+        checkFlow(g, f, source, sink, expected, what);
+        return f;
+    }
+
+    /*
+     * Checks a flow and its cut.
+     * @param g is the graph the flow was found on
+     * @param f is the flow
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     * @param expected is the value the flow should have
+     * @param what names the run, for the messages
+     */
+    private void checkFlow(Graph g, FlowResult f, int source, int sink, int expected, String what)
+    {
+        ResidualGraph r = g.getResidual();
+        int[] offsets = r.getOffsets();
+        int[] capacities = r.getCapacities();
+        int[] flows = f.getFlows();
+        check(f.getValue() == expected, what + " found " + f.getValue() + " instead of " + expected);
+        boolean fits = true;
+        boolean conserved = true;
+        for (int v = 0; v < r.order(); v++)
+        {
+            long out = 0;
+            for (int a = offsets[v]; a < offsets[v + 1]; a++)
+            {
+                fits &= flows[a] <= capacities[a];
+                out += flows[a];
+            }
+            if (v == source)
+            {
+                check(out == f.getValue(), what + " sends " + out + " out of the source");
+            }
+            else if (v != sink)
+            {
+                conserved &= out == 0;
+            }
+        }
+        check(fits, what + " goes over a capacity");
+        check(conserved, what + " is not conserved");
+        boolean[] side = f.getSourceSide();
+        check(side[source] && !side[sink], what + " has a cut that does not split the source and sink");
+        long cut = 0;
+        for (int a : f.getCutArcs())
+        {
+            cut += capacities[a];
+        }
+        check(cut == f.getValue(), what + " has a cut of " + cut + " for a flow of " + f.getValue());
+    }
+
+    /*
+     * Checks that a flow costs as little as any flow of its value, which
+     * is when no cycle of arcs with residual capacity has a negative cost.
+     * Bellman-Ford from every vertex at once finds such a cycle if it is
+     * still lowering a distance after as many rounds as there are vertices.
+     * @param g is the graph the flow was found on
+     * @param f is the flow
+     * @param what names the run, for the messages
+     */
+    private void checkCheapest(Graph g, FlowResult f, String what)
+    {
+        ResidualGraph r = g.getResidual();
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] capacities = r.getCapacities();
+        int[] costs = r.getCosts();
+        int[] flows = f.getFlows();
+        long[] distance = new long[r.order()];
+        boolean lowered = true;
+        for (int round = 0; round <= r.order() && lowered; round++)
+        {
+            lowered = false;
+            for (int u = 0; u < r.order(); u++)
+            {
+                for (int a = offsets[u]; a < offsets[u + 1]; a++)
+                {
+                    if (capacities[a] > flows[a] && distance[u] + costs[a] < distance[targets[a]])
+                    {
+                        distance[targets[a]] = distance[u] + costs[a];
+                        lowered = true;
+                    }
+                }
+            }
+        }
+        check(!lowered, what + " leaves a cycle of negative cost");
+    }
+
+    /*
+     * Returns whether two residual graphs have the same arcs in the same
+     * order.
+     * @param a is the first residual graph
+     * @param b is the second residual graph
+     * @return returns true if every array matches
+     */
+    private boolean sameArcs(ResidualGraph a, ResidualGraph b)
+    {
+        return a.order() == b.order() && Arrays.equals(a.getOffsets(), b.getOffsets())
+                && Arrays.equals(a.getTargets(), b.getTargets()) && Arrays.equals(a.getCapacities(), b.getCapacities())
+                && Arrays.equals(a.getReverse(), b.getReverse()) && Arrays.equals(a.getEdgeIds(), b.getEdgeIds())
+                && Arrays.equals(a.getCosts(), b.getCosts());
+    }
+
+    /*
+     * Returns whether parsed edges match the ones that were written.
+     * @param edges holds the starts, ends, capacities and costs written
+     * @param starts is the parsed starts
+     * @param ends is the parsed ends
+     * @param caps is the parsed capacities
+     * @param costs is the parsed costs, or null if the format has none
+     * @param m is the number of edges parsed
+     * @return returns true if every edge matches
+     */
+    private boolean sameEdges(int[][] edges, int[] starts, int[] ends, int[] caps, int[] costs, int m)
+    {
+        if (m != edges[0].length)
+        {
+            return false;
+        }
+        return Arrays.equals(edges[0], 0, m, starts, 0, m) && Arrays.equals(edges[1], 0, m, ends, 0, m)
+                && Arrays.equals(edges[2], 0, m, caps, 0, m)
+                && (costs == null || Arrays.equals(edges[3], 0, m, costs, 0, m));
+    }
+
+    /*
+     * Counts a check, and prints it if it failed.
+     * @param ok is whether the check passed
+     * @param what says what went wrong
+     */
+    private void check(boolean ok, String what)
+    {
+        checks++;
+        if (!ok)
+        {
+            failures++;
+            OUT.println("FAILED: " + what);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * DimacsParser.java
+ * This class reads a max flow problem in the DIMACS format:
+ *   c a comment
+ *   p max NODES ARCS
+ *   n ID s            (the source)
+ *   n ID t            (the sink)
+ *   a U V CAPACITY
+ * Vertices are numbered from 1 in the file and from 0 once read.  A file
+ * whose first two bytes are the gzip magic number is decompressed while
+ * it is read.
+ *
+ * The file is streamed through a small buffer and decoded byte by byte,
+ * so only the edges are ever held in memory, in arrays allocated once from
+ * the number of arcs on the problem line.
+ *
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+public class DimacsParser
+{
+    private static final int BUFFER = 1 << 16;
+
+    private int vertices;
+    private int edges;
+    private int source;
+    private int sink;
+    private int[] starts;
+    private int[] ends;
+    private int[] caps;
+    private int[] costs;
+
+    //The stream and the part of it that has been read but not decoded
+    private InputStream in;
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    private int line;
+
+    /*
+     * Constructor that reads a DIMACS file.
+     * @param fileName is the file to read
+     * @throws FileNotFoundException if the file cannot be found
+     * @throws IOException if the file cannot be read
+     * @throws NumberFormatException if a line is not in the DIMACS format
+     * @throws ArrayIndexOutOfBoundsException if an arc is outside the graph
+     */
+    public DimacsParser(String fileName) throws IOException
+    {
+        source = -1;
+        sink = -1;
+        buffer = new byte[BUFFER];
+        line = 1;
+        boolean problem = false;
+        try (InputStream stream = open(fileName))
+        {
+            in = stream;
+            int c = skipSpaces();
+            while (c != -1)
+            {
+                if (c == 'p')
+                {
+                    if (problem)
+                    {
+                        throw error("has a second problem line");
+                    }
+                    if (skipSpaces() != 'm' || next() != 'a' || next() != 'x')
+                    {
+                        throw error("is not a max flow problem line");
+                    }
+                    vertices = readInt();
+                    int arcs = readInt();
+                    if (vertices < 0 || arcs < 0)
+                    {
+                        throw error("has a negative size");
+                    }
+                    int room = Math.max(4, arcs);
+                    starts = new int[room];
+                    ends = new int[room];
+                    caps = new int[room];
+                    costs = new int[room];
+                    problem = true;
+                }
+                else if (c == 'n' && problem)
+                {
+                    int v = vertex(readInt());
+                    int kind = skipSpaces();
+                    if (kind == 's')
+                    {
+                        source = v;
+                    }
+                    else if (kind == 't')
+                    {
+                        sink = v;
+                    }
+                    else
+                    {
+                        throw error("does not mark a source or a sink");
+                    }
+                }
+                else if (c == 'a' && problem)
+                {
+                    int u = vertex(readInt());
+                    int v = vertex(readInt());
+                    int capacity = readInt();
+                    if (edges == starts.length)
+                    {
+                        starts = Arrays.copyOf(starts, 2 * edges);
+                        ends = Arrays.copyOf(ends, 2 * edges);
+                        caps = Arrays.copyOf(caps, 2 * edges);
+                        costs = Arrays.copyOf(costs, 2 * edges);
+                    }
+                    starts[edges] = u;
+                    ends[edges] = v;
+                    caps[edges] = capacity;
+                    edges++;
+                }
+                else if (c != 'c' && c != '\n')
+                {
+                    throw error(problem ? "is not a comment, node or arc line" : "comes before the problem line");
+                }
+                //The rest of the line is a comment or was already read
+                while (c != '\n' && c != -1)
+                {
+                    c = next();
+                }
+                line++;
+                c = skipSpaces();
+            }
+        }
+        if (!problem)
+        {
+            throw new NumberFormatException(fileName + " has no problem line.");
+        }
+    }
+
+    /*
+     * Returns whether a file is in the DIMACS format, which is when its
+     * first word is a comment or problem line.
+     * @param fileName is the file to look at
+     * @return returns true if the file can be read as DIMACS
+     * @throws FileNotFoundException if the file cannot be found
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isDimacs(String fileName) throws IOException
+    {
+        try (InputStream stream = open(fileName))
+        {
+            int c = stream.read();
+            while (c == ' ' || c == '\t' || c == '\r' || c == '\n')
+            {
+                c = stream.read();
+            }
+            return c == 'c' || c == 'p';
+        }
+    }
+
+    /*
+     * Getter for the number of vertices.
+     * @return returns the number of vertices on the problem line
+     */
+    public int getVertices()
+    {
+        return vertices;
+    }
+
+    /*
+     * Getter for the number of edges read.
+     * @return returns the number of arc lines
+     */
+    public int getEdges()
+    {
+        return edges;
+    }
+
+    /*
+     * Getter for the source.
+     * @return returns the vertex marked s, or vertex 0 if none was
+     */
+    public int getSource()
+    {
+        return source == -1 ? 0 : source;
+    }
+
+    /*
+     * Getter for the sink.
+     * @return returns the vertex marked t, or the last vertex if none was
+     */
+    public int getSink()
+    {
+        return sink == -1 ? vertices - 1 : sink;
+    }
+
+    /*
+     * Getter for the start of each edge.  The array may be longer than the
+     * number of edges.
+     * @return returns the start vertices
+     */
+    public int[] getStarts()
+    {
+        return starts;
+    }
+
+    /*
+     * Getter for the end of each edge.
+     * @return returns the end vertices
+     */
+    public int[] getEnds()
+    {
+        return ends;
+    }
+
+    /*
+     * Getter for the capacity of each edge.
+     * @return returns the capacities
+     */
+    public int[] getCaps()
+    {
+        return caps;
+    }
+
+    /*
+     * Getter for the cost of each edge, which is always 0.
+     * @return returns the costs
+     */
+    public int[] getCosts()
+    {
+        return costs;
+    }
+
+    /*
+     * Opens a file for reading, decompressing it if it starts with the
+     * gzip magic number.
+     * @param fileName is the file to open
+     * @return returns the stream of the file's contents
+     * @throws IOException if the file cannot be opened
+     */
+    private static InputStream open(String fileName) throws IOException
+    {
+        InputStream stream = new BufferedInputStream(new FileInputStream(fileName), BUFFER);
+        stream.mark(2);
+        boolean gzip = stream.read() == 0x1f && stream.read() == 0x8b;
+        stream.reset();
+        return gzip ? new GZIPInputStream(stream, BUFFER) : stream;
+    }
+
+    /*
+     * Reads the next byte of the file.
+     * @return returns the byte from 0 to 255, or -1 at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    private int next() throws IOException
+    {
+        if (position == limit)
+        {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0)
+            {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    /*
+     * Reads past spaces and tabs.
+     * @return returns the first byte that is not one
+     * @throws IOException if the file cannot be read
+     */
+    private int skipSpaces() throws IOException
+    {
+        int c = next();
+        while (c == ' ' || c == '\t' || c == '\r')
+        {
+            c = next();
+        }
+        return c;
+    }
+
+    /*
+     * Reads the next number on the line.
+     * @return returns the number
+     * @throws IOException if the file cannot be read
+     */
+    private int readInt() throws IOException
+    {
+        int c = skipSpaces();
+        boolean negative = c == '-';
+        if (negative)
+        {
+            c = next();
+        }
+        if (c < '0' || c > '9')
+        {
+            throw error("is missing a number");
+        }
+        long value = 0;
+        while (c >= '0' && c <= '9')
+        {
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE)
+            {
+                throw error("has a number that is too large");
+            }
+            c = next();
+        }
+        if (c == '\n')
+        {
+            //Give the line break back so the line ends where it should
+            position--;
+        }
+        else if (c != ' ' && c != '\t' && c != '\r' && c != -1)
+        {
+            throw error("has a bad number");
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /*
+     * Turns a vertex of the file into a vertex of the graph.
+     * @param id is the vertex in the file, counted from 1
+     * @return returns the vertex counted from 0
+     */
+    private int vertex(int id)
+    {
+        if (id < 1 || id > vertices)
+        {
+            throw new ArrayIndexOutOfBoundsException("Vertex " + id + " on line " + line + " is outside the graph.");
+        }
+        return id - 1;
+    }
+
+    /*
+     * Makes the exception for a line that cannot be read.
+     * @param problem says what is wrong with the line
+     * @return returns the exception to throw
+     */
+    private NumberFormatException error(String problem)
+    {
+        return new NumberFormatException("Line " + line + " " + problem + ".");
+    }
+}
@@ -6,29 +6,28 @@
  *
  */
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.io.File;
-import java.util.Scanner;
+import java.util.Arrays;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 
 public class DirectedGraph extends Graph
 {
-    private int[][] matrix;
-    private int[][] capacities;
-    private ArrayList<LinkedList<Integer>> list = new ArrayList<LinkedList<Integer>>();
-    private int[][] takenMatrix;
+    private int vertices;
+    private int[] starts;
+    private int[] ends;
+    private int[] caps;
+    private int[] costs;
     private int edges;
+    private boolean terminals;
+    private int source;
+    private int sink;
+    private ResidualGraph residual;
     /*
      * No-arg constructor for DirectedGraph.
      */
     public DirectedGraph()
     {
-        matrix = new int[1][1];
-        capacities = new int[1][1];
-        takenMatrix = new int[1][1];
-        list.add(new LinkedList<Integer>());
-        edges = 0;
+        this(1);
     }
     /*
      * One-arg constructor for DirectedGraph.
@@ -36,103 +35,139 @@ public class DirectedGraph extends Graph
      */
     public DirectedGraph(int n)
     {
-        matrix = new int[n][n];
-        capacities = new int[n][n];
-        takenMatrix = new int[n][n];
-        for (int i = 0; i < n; i++)
-        {
-            list.add(new LinkedList<Integer>());
-            for (int j = 0; j < n; j++)
-            {
-                matrix[i][j] = 0;
-                capacities[i][j] = 0;
-                takenMatrix[i][j] = 0;
-            }
-        }
+        vertices = n;
+        starts = new int[4];
+        ends = new int[4];
+        caps = new int[4];
+        costs = new int[4];
         edges = 0;
     }
+
     /*
-     * Getter for the graph's matrix.
-     * @return returns the matrix as a 2D array of ints
+     * Constructor that takes over edge arrays that are already filled in,
+     * such as the ones a parser reads.  The arrays may be longer than the
+     * number of edges.
+     * @param n is the number of vertices for the graph
+     * @param m is the number of edges in the arrays
+     * @param starts holds the starting vertex of each edge
+     * @param ends holds the ending vertex of each edge
+     * @param caps holds the capacity of each edge
+     * @param costs holds the cost of each edge
      */
-    public int[][] getMatrix()
+    public DirectedGraph(int n, int m, int[] starts, int[] ends, int[] caps, int[] costs)
     {
-        return matrix;
+        vertices = n;
+        this.starts = starts;
+        this.ends = ends;
+        this.caps = caps;
+        this.costs = costs;
+        edges = m;
     }
 
     /*
-     * Setter for the graph's matrix.
-     * @param matrix is the new matrix.
+     * Constructor that starts from a residual graph that is already built,
+     * such as one loaded from a binary graph file.  The edges are only got
+     * back from its arcs if the graph is changed.
+     * @param r is the residual graph
      */
-    public void setMatrix(int[][] matrix)
+    public DirectedGraph(ResidualGraph r)
     {
-        matrix = this.matrix;
+        vertices = r.order();
+        edges = r.arcCount() / 2;
+        residual = r;
     }
 
     /*
-     * Getter for the graph's takenMatrix.
-     * @return returns the matrix as a 2D array of ints
+     * Makes sure the edge arrays are filled in before the graph changes,
+     * getting them back from the residual graph if it was built first.
      */
-    public int[][] getTakenMatrix()
+    private void keepEdges()
     {
-        return takenMatrix;
+        if (starts == null)
+        {
+            int room = Math.max(4, edges);
+            starts = new int[room];
+            ends = new int[room];
+            caps = new int[room];
+            costs = new int[room];
+            residual.fillEdges(starts, ends, caps, costs);
+        }
     }
 
     /*
-     * Setter for the graph's taken matrix.
-     * @param matrix is the new taken matrix.
+     * Getter for the graph's residual graph.  The residual graph is built
+     * from the edges the first time it is needed after an edge is added.
+     * @return returns the residual graph
      */
-    public void setTakenMatrix(int[][] takenMatrix)
+    public ResidualGraph getResidual()
     {
-        takenMatrix = this.takenMatrix;
+        if (residual == null)
+        {
+            residual = new ResidualGraph(vertices, edges, starts, ends, caps, costs, false);
+        }
+        return residual;
     }
 
     /*
-     * Getter for the graph's list.
-     * @return returns the adjacency list
+     * Getter for the vertex flow starts from when no other is given.
+     * @return returns the source, which is vertex 0 unless it was set
      */
-    public ArrayList<LinkedList<Integer>> getList()
+    public int getSource()
     {
-        return list;
+        return terminals ? source : 0;
     }
 
     /*
-     * Setter for the graph's list.
-     * @param matrix is the new adjacency list.
+     * Getter for the vertex flow ends at when no other is given.
+     * @return returns the sink, which is the last vertex unless it was set
      */
-    public void setList(ArrayList<LinkedList<Integer>> list)
+    public int getSink()
     {
-        list = this.list;
+        return terminals ? sink : vertices - 1;
     }
 
     /*
-     * Method that resizes the graph.
+     * Sets the source and sink, for graphs that do not use vertex 0 and
+     * the last vertex.
+     * @param s is the source
+     * @param t is the sink
+     */
+    public void setTerminals(int s, int t)
+    {
+        if (s < 0 || s >= vertices || t < 0 || t >= vertices)
+        {
+            throw new ArrayIndexOutOfBoundsException("Terminals (" + s + ", " + t + ") are outside the graph.");
+        }
+        terminals = true;
+        source = s;
+        sink = t;
+    }
+
+    /*
+     * Method that resizes the graph.  Edges that touch a removed vertex
+     * are dropped, and the source and sink go back to vertex 0 and the
+     * last vertex if either was removed.
      * @param numVertices is the number of vertices for the graph
      */
     public void resize(int numVertices)
     {
-        int[][] newmatrix = new int[numVertices][numVertices];
-        int[][] newCap = new int[numVertices][numVertices];
-        int[][] newTaken = new int[numVertices][numVertices];
-        if (numVertices > matrix.length)
+        keepEdges();
+        int kept = 0;
+        for (int e = 0; e < edges; e++)
         {
-            for (int i = 0; i < matrix.length; i++)
+            if (starts[e] < numVertices && ends[e] < numVertices)
             {
-                for (int j = 0; j < matrix.length; j++)
-                {
-                    newmatrix[i][j] = matrix[i][j];
-                    newCap[i][j] = capacities[i][j];
-                    newTaken[i][j] = takenMatrix[i][j];
-                }
-                if (list.size() <= i)
-                {
-                    list.add(new LinkedList<Integer>());
-                }
+                starts[kept] = starts[e];
+                ends[kept] = ends[e];
+                caps[kept] = caps[e];
+                costs[kept] = costs[e];
+                kept++;
             }
         }
-        matrix = newmatrix;
-        capacities = newCap;
-        takenMatrix = newTaken;
+        edges = kept;
+        vertices = numVertices;
+        terminals &= source < numVertices && sink < numVertices;
+        residual = null;
     }
     /*
      * Returns the number of vertices in the graph.
@@ -140,7 +175,7 @@ public class DirectedGraph extends Graph
      */
     public int order()
     {
-        return matrix.length;
+        return vertices;
     }
     /*
      * Returns the number of edges in the graph.
@@ -158,7 +193,7 @@ public class DirectedGraph extends Graph
      */
     public boolean isEdge(int i, int j)
     {
-        return matrix[i][j] > 0;
+        return getResidual().residualBetween(i, j) > 0;
     }
     /*
      * Makes the two vertices(i and j) neighbors with capacity k.
@@ -168,96 +203,83 @@ public class DirectedGraph extends Graph
      */
     public void addEdge(Integer i, Integer j, Integer k)
     {
-        matrix[i][j] = k;
-        capacities[i][j] = k;
-        list.get(i).add(j);
+        addEdge(i, j, k, 0);
+    }
+    /*
+     * Makes the two vertices(i and j) neighbors with capacity k and a cost
+     * of c for each unit of flow.
+     * @param i is the first vertex
+     * @param j is the second vertex
+     * @param k is the capacity of the edge
+     * @param c is the cost of the edge
+     */
+    public void addEdge(Integer i, Integer j, Integer k, Integer c)
+    {
+        if (i < 0 || i >= vertices || j < 0 || j >= vertices)
+        {
+            throw new ArrayIndexOutOfBoundsException("Edge (" + i + ", " + j + ") is outside the graph.");
+        }
+        keepEdges();
+        if (edges == starts.length)
+        {
+            starts = Arrays.copyOf(starts, 2 * edges);
+            ends = Arrays.copyOf(ends, 2 * edges);
+            caps = Arrays.copyOf(caps, 2 * edges);
+            costs = Arrays.copyOf(costs, 2 * edges);
+        }
+        starts[edges] = i;
+        ends[edges] = j;
+        caps[edges] = k;
+        costs[edges] = c;
         edges += 1;
+        residual = null;
     }
     /*
      * Prints the graph info.
      */
     public void printGraph()
     {
-        System.out.println("Edges and their capacity: ");
-        for (int i = 0; i < matrix.length; i++)
-        {
-            for (int j = 0; j < matrix.length; j++)
-            {
-                if (isEdge(i, j))
-                {
-                    System.out.println("(" + i + ", " +  j + "): " + matrix[i][j]);
-                }
-            }
-        }
+        getResidual().printGraph();
     }
     /*
-     * Reads the graph files.
+     * Reads the graph files.  A DIMACS max flow file, gzipped or not,
+     * keeps the source and sink it names.  Other files use vertex 0 and
+     * the last vertex.
      * @param fileName is the file to read in
      * @throws FileNotFoundException if file not found
      * @return returns a graph representative of the data
      */
     public DirectedGraph reader(String fileName) throws FileNotFoundException
     {
-        DirectedGraph graph = new DirectedGraph();
         try
         {
-            File f = new File(fileName);
-            Scanner scanner = new Scanner(f);
-            int count = 0;
-            String line = scanner.nextLine();
-            String[] splitLine = line.split("\\s+");
-            do
+            if (DimacsParser.isDimacs(fileName))
             {
-                if (count == 0)
-                {
-                    graph = new DirectedGraph(Integer.parseInt(splitLine[0]));
-                }
-                else
-                {
-                    graph.addEdge(Integer.parseInt(splitLine[0]),
-                            Integer.parseInt(splitLine[1]),
-                            Integer.parseInt(splitLine[2]));
-                }
-                count++;
-                line = scanner.nextLine();
-                splitLine = line.split("\\s+");
+                DimacsParser d = new DimacsParser(fileName);
+                DirectedGraph graph = new DirectedGraph(d.getVertices(), d.getEdges(), d.getStarts(), d.getEnds(), d.getCaps(), d.getCosts());
+                graph.setTerminals(d.getSource(), d.getSink());
+                return graph;
             }
-            while (Integer.parseInt(splitLine[0]) != -1);
-            scanner.close();
-            return graph;
+            GraphParser p = new GraphParser(fileName);
+            return new DirectedGraph(p.getVertices(), p.getEdges(), p.getStarts(), p.getEnds(), p.getCaps(), p.getCosts());
         }
         catch (FileNotFoundException e)
         {
             System.out.println("File not found. Try another file.");
         }
-        return new DirectedGraph();
-    }
-
-    /*
-     *  Prints the adjacency matrix.
-     */
-    public void printMatrix()
-    {
-        for(int i = 0; i < matrix.length; i++)
+        catch (IOException e)
         {
-            for(int j = 0; j < matrix.length; j++)
-            {
-                System.out.print(matrix[i][j] + " ");
-            }
-            System.out.println();
+            System.out.println("Could not read the file: " + e.getMessage());
         }
+        return new DirectedGraph();
     }
 
     /*
-     * Adds to the taken matrix.  Meant to keep track of the number of items
-     * going over each edge.
-     * @param i is the row
-     * @param j is the column
-     * @param value is the value to add to the taken matrix
+     *  Prints the residual capacities as an adjacency matrix.
      */
-    public void addToTaken(int i, int j, int value)
+    public void printMatrix()
     {
-        takenMatrix[i][j] += value;
+        getResidual().printMatrix();
     }
 
     /*
@@ -265,17 +287,6 @@ public class DirectedGraph extends Graph
      */
     public void printTaken()
     {
-        System.out.println("Taken edges and their capacity: ");
-        for (int i = 0; i < takenMatrix.length; i++)
-        {
-            for (int j = 0; j < takenMatrix.length; j++)
-            {
-                if (takenMatrix[i][j] != 0 && capacities[i][j] != 0)
-                {
-                    System.out.println("(" + i + ", " +  j + "): " + takenMatrix[i][j] + "/" + (capacities[i][j]));
-                }
-            }
-        }
+        getResidual().printTaken();
     }
 }
-
@@ -0,0 +1,108 @@
+/*
+ * FenwickTree.java
+ * This class is a Fenwick (binary indexed) tree over the weights of a list
+ * of items.  It can change a weight and pick an item at random in
+ * proportion to its weight, both in O(log n) time, so items can be taken
+ * out of the draw one at a time as they are used up.
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+public class FenwickTree
+{
+    private long[] tree;
+    private long[] weights;
+    private int mask;
+
+    /*
+     * Constructor that builds the tree from a list of weights in O(n) time.
+     * @param values holds the weight of each item
+     * @param n is the number of items
+     */
+    public FenwickTree(int[] values, int n)
+    {
+        tree = new long[n + 1];
+        weights = new long[n];
+        for (int i = 0; i < n; i++)
+        {
+            weights[i] = values[i];
+            tree[i + 1] += values[i];
+            int parent = (i + 1) + ((i + 1) & -(i + 1));
+            if (parent <= n)
+            {
+                tree[parent] += tree[i + 1];
+            }
+        }
+        mask = Integer.highestOneBit(Math.max(n, 1));
+    }
+
+    /*
+     * Returns the weight of every item added together.
+     * @return returns the total weight
+     */
+    public long total()
+    {
+        long sum = 0;
+        for (int i = tree.length - 1; i > 0; i -= i & -i)
+        {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /*
+     * Returns the weight of one item.
+     * @param i is the item
+     * @return returns the weight of the item
+     */
+    public long weight(int i)
+    {
+        return weights[i];
+    }
+
+    /*
+     * Changes the weight of one item.
+     * @param i is the item
+     * @param weight is the new weight of the item
+     */
+    public void set(int i, long weight)
+    {
+        long delta = weight - weights[i];
+        weights[i] = weight;
+        for (int j = i + 1; j < tree.length; j += j & -j)
+        {
+            tree[j] += delta;
+        }
+    }
+
+    /*
+     * Takes an item out of the draw by setting its weight to 0.
+     * @param i is the item
+     */
+    public void remove(int i)
+    {
+        set(i, 0);
+    }
+
+    /*
+     * Finds the item a point on the line of weights falls in.  Drawing the
+     * point uniformly from 0 to total() - 1 picks each item in proportion
+     * to its weight.
+     * @param value is the point, from 0 to total() - 1
+     * @return returns the item i whose weight covers the point
+     */
+    public int find(long value)
+    {
+        int position = 0;
+        for (int step = mask; step > 0; step >>= 1)
+        {
+            int next = position + step;
+            if (next < tree.length && tree[next] <= value)
+            {
+                position = next;
+                value -= tree[next];
+            }
+        }
+        return position;
+    }
+}
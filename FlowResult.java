@@ -0,0 +1,141 @@
+/*
+ * FlowResult.java
+ * This class is the answer a max flow algorithm gives: the value of the
+ * flow, the flow on each arc, and a min cut that proves the flow is as
+ * large as it can be.
+ *
+ * The source side of the cut is every vertex that can still be reached
+ * from the source through arcs with residual capacity, found with one
+ * ParallelBFS on the common pool in O(V + E) work.  The cut arcs are the arcs with
+ * capacity that leave the source side.  They are all saturated, so their
+ * capacities add up to the value of the flow.
+ *
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+public class FlowResult
+{
+    private int value;
+    private long cost;
+    private int[] flows;
+    private boolean[] sourceSide;
+    private int[] cutArcs;
+
+    /*
+     * Constructor that records a max flow that has just been found.
+     * @param r is the residual graph holding the flow
+     * @param source is the vertex the flow starts from
+     * @param value is the value of the flow
+     */
+    public FlowResult(ResidualGraph r, int source, int value)
+    {
+        this(r, source, value, 0);
+    }
+
+    /*
+     * Constructor that records a max flow that has just been found along
+     * with its cost.
+     * @param r is the residual graph holding the flow
+     * @param source is the vertex the flow starts from
+     * @param value is the value of the flow
+     * @param cost is the total cost of the flow
+     */
+    public FlowResult(ResidualGraph r, int source, int value, long cost)
+    {
+        this.value = value;
+        this.cost = cost;
+        flows = Arrays.copyOf(r.getFlows(), r.arcCount());
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] capacities = r.getCapacities();
+        ParallelBFS bfs = new ParallelBFS(ForkJoinPool.commonPool(), r);
+        bfs.search(source, a -> r.residual(a) > 0, true, -1);
+        int[] levels = bfs.getLevels();
+        sourceSide = new boolean[r.order()];
+        for (int v = 0; v < r.order(); v++)
+        {
+            sourceSide[v] = levels[v] != -1;
+        }
+        int count = 0;
+        int[] found = new int[16];
+        for (int u = 0; u < r.order(); u++)
+        {
+            if (!sourceSide[u])
+            {
+                continue;
+            }
+            for (int a = offsets[u]; a < offsets[u + 1]; a++)
+            {
+                if (!sourceSide[targets[a]] && capacities[a] > 0)
+                {
+                    if (count == found.length)
+                    {
+                        found = Arrays.copyOf(found, 2 * count);
+                    }
+                    found[count++] = a;
+                }
+            }
+        }
+        cutArcs = Arrays.copyOf(found, count);
+    }
+
+    /*
+     * Getter for the value of the flow.
+     * @return returns the value of the flow
+     */
+    public int getValue()
+    {
+        return value;
+    }
+
+    /*
+     * Getter for the cost of the flow.  Flows found without costs cost 0.
+     * @return returns the total cost of the flow
+     */
+    public long getCost()
+    {
+        return cost;
+    }
+
+    /*
+     * Getter for the flow on each arc, in the arc order of the residual
+     * graph.  Backward arcs hold the negative of their mate's flow.
+     * @return returns the flow on each arc
+     */
+    public int[] getFlows()
+    {
+        return flows;
+    }
+
+    /*
+     * Getter for the source side of the min cut.
+     * @return returns true for every vertex on the source side
+     */
+    public boolean[] getSourceSide()
+    {
+        return sourceSide;
+    }
+
+    /*
+     * Returns whether a vertex is on the source side of the min cut.
+     * @param v is the vertex
+     * @return returns true if the vertex is on the source side
+     */
+    public boolean isSourceSide(int v)
+    {
+        return sourceSide[v];
+    }
+
+    /*
+     * Getter for the arcs that cross the min cut.
+     * @return returns the arcs leaving the source side
+     */
+    public int[] getCutArcs()
+    {
+        return cutArcs;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * FlowWorkspace.java
+ * This class holds a residual graph together with the buffers that the
+ * searches in Algorithms use, so that many max flows can be found on one
+ * graph without allocating anything the size of the graph for each one.
+ *
+ * Vertices are marked as visited by writing the number of the current
+ * search into an array, so starting a new search does not have to clear
+ * it.  A search from both ends takes two numbers, one for each side.
+ * Layers are built by a ParallelBFS on the common pool, whose level array
+ * doubles as the layer buffer, and the test for an arc with residual
+ * capacity is made once and kept here.  A level of the search that is big
+ * enough to split over the pool still makes its small task objects and
+ * result buffers as it runs; on one thread the search makes nothing.
+ * Clearing the flow between solves is left to the solver.
+ *
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
+
+public class FlowWorkspace
+{
+    private ResidualGraph r;
+    private int[] parentArcs;
+    private int[] childArcs;
+    private int[] queue;
+    private int[] sinkQueue;
+    private ParallelBFS bfs;
+    private IntPredicate open;
+    private int[] current;
+    private int[] pathArcs;
+    private int[] visited;
+    private int search;
+
+    /*
+     * Constructor that sets up the buffers for a residual graph.
+     * @param r is the residual graph the flows will be found on
+     */
+    public FlowWorkspace(ResidualGraph r)
+    {
+        this.r = r;
+        int n = r.order();
+        parentArcs = new int[n];
+        childArcs = new int[n];
+        queue = new int[n];
+        sinkQueue = new int[n];
+        bfs = new ParallelBFS(ForkJoinPool.commonPool(), r);
+        open = a -> r.residual(a) > 0;
+        current = new int[n];
+        pathArcs = new int[n];
+        visited = new int[n];
+        search = 0;
+    }
+
+    /*
+     * Getter for the residual graph.
+     * @return returns the residual graph
+     */
+    public ResidualGraph getResidual()
+    {
+        return r;
+    }
+
+    /*
+     * Getter for the arc each vertex was reached through.
+     * @return returns the parent arc buffer
+     */
+    public int[] getParentArcs()
+    {
+        return parentArcs;
+    }
+
+    /*
+     * Getter for the arc each vertex on the sink's side of a search leaves
+     * through on its way to the sink.
+     * @return returns the child arc buffer
+     */
+    public int[] getChildArcs()
+    {
+        return childArcs;
+    }
+
+    /*
+     * Getter for the buffer used as a queue or stack by the searches.
+     * It has room for every vertex once.
+     * @return returns the queue buffer
+     */
+    public int[] getQueue()
+    {
+        return queue;
+    }
+
+    /*
+     * Getter for the queue used by the sink's side of a search from both
+     * ends.
+     * @return returns the sink queue buffer
+     */
+    public int[] getSinkQueue()
+    {
+        return sinkQueue;
+    }
+
+    /*
+     * Getter for the layer of each vertex in Dinic's algorithm.
+     * @return returns the layer buffer
+     */
+    public int[] getLayers()
+    {
+        return bfs.getLevels();
+    }
+
+    /*
+     * Getter for the search that builds the layers.
+     * @return returns the breadth-first search of the residual graph
+     */
+    public ParallelBFS getBFS()
+    {
+        return bfs;
+    }
+
+    /*
+     * Getter for the test the searches use to follow an arc.
+     * @return returns a test that is true for arcs with residual capacity
+     */
+    public IntPredicate getOpen()
+    {
+        return open;
+    }
+
+    /*
+     * Getter for the current arc of each vertex.
+     * @return returns the current arc buffer
+     */
+    public int[] getCurrent()
+    {
+        return current;
+    }
+
+    /*
+     * Getter for the arcs of a path being built.
+     * @return returns the path buffer
+     */
+    public int[] getPathArcs()
+    {
+        return pathArcs;
+    }
+
+    /*
+     * Starts a new search.  Every vertex counts as not visited until it is
+     * marked.
+     * @return returns the number of the new search
+     */
+    public int startSearch()
+    {
+        if (search == Integer.MAX_VALUE)
+        {
+            Arrays.fill(visited, 0);
+            search = 0;
+        }
+        search++;
+        return search;
+    }
+
+    /*
+     * Marks a vertex as visited in the current search.
+     * @param v is the vertex
+     */
+    public void visit(int v)
+    {
+        visited[v] = search;
+    }
+
+    /*
+     * Marks a vertex with a search number, for searches that use more than
+     * one.
+     * @param v is the vertex
+     * @param mark is the number from startSearch
+     */
+    public void mark(int v, int mark)
+    {
+        visited[v] = mark;
+    }
+
+    /*
+     * Returns the search number a vertex was last marked with.
+     * @param v is the vertex
+     * @return returns the mark of the vertex
+     */
+    public int getMark(int v)
+    {
+        return visited[v];
+    }
+
+    /*
+     * Returns whether a vertex has been visited in the current search.
+     * @param v is the vertex
+     * @return returns true if the vertex has been marked
+     */
+    public boolean isVisited(int v)
+    {
+        return visited[v] == search;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * GomoryHuTree.java
+ * This class is a Gomory-Hu tree of an undirected graph, built with
+ * Gusfield's algorithm.
+ *
+ * Vertex i is joined to a parent p(i) < i by an edge whose weight is the
+ * min cut between them.  The min cut between any two vertices is then the
+ * lightest edge on the path between them in the tree, so once the tree is
+ * built a query takes O(V) time and never looks at the graph again.
+ *
+ * Building the tree takes n - 1 max flows.  The flow for vertex i needs
+ * the parent that the flows for the vertices before it left it with, so
+ * the flows are run in batches on a ForkJoinPool using the parents known
+ * when the batch starts.  The results are then used in order, and once one
+ * vertex's parent turns out to have been changed by an earlier vertex in
+ * the batch, the rest of the batch is thrown away and run again.  Every
+ * flow runs on its own copy of the residual graph.
+ *
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class GomoryHuTree
+{
+    private int[] parent;
+    private int[] weight;
+    private int flows;
+
+    /*
+     * Constructor that builds the tree of an undirected residual graph.
+     * @param r is the residual graph, with capacity in both directions
+     * @param pool is the pool to run the max flows on
+     */
+    public GomoryHuTree(ResidualGraph r, ForkJoinPool pool)
+    {
+        int n = r.order();
+        parent = new int[n];
+        weight = new int[n];
+        flows = 0;
+        int batch = Math.max(1, pool.getParallelism());
+        int[] used = new int[batch];
+        int[] values = new int[batch];
+        boolean[][] sides = new boolean[batch][];
+        int next = 1;
+        while (next < n)
+        {
+            int size = Math.min(batch, n - next);
+            for (int k = 0; k < size; k++)
+            {
+                used[k] = parent[next + k];
+            }
+            pool.invoke(new Flows(r, next, used, values, sides, 0, size));
+            flows += size;
+            int k = 0;
+            while (k < size && parent[next + k] == used[k])
+            {
+                int i = next + k;
+                weight[i] = values[k];
+                for (int j = i + 1; j < n; j++)
+                {
+                    if (parent[j] == used[k] && sides[k][j])
+                    {
+                        parent[j] = i;
+                    }
+                }
+                k++;
+            }
+            next += k;
+        }
+    }
+
+    /*
+     * Returns the number of vertices in the tree.
+     * @return returns the number of vertices
+     */
+    public int order()
+    {
+        return parent.length;
+    }
+
+    /*
+     * Getter for the parent of a vertex.  Vertex 0 is the root and is its
+     * own parent.
+     * @param v is the vertex
+     * @return returns the parent of the vertex
+     */
+    public int getParent(int v)
+    {
+        return parent[v];
+    }
+
+    /*
+     * Getter for the weight of the edge from a vertex to its parent.
+     * @param v is the vertex, other than 0
+     * @return returns the min cut between the vertex and its parent
+     */
+    public int getWeight(int v)
+    {
+        return weight[v];
+    }
+
+    /*
+     * Getter for how many max flows were run to build the tree, counting
+     * the ones that had to be run again.
+     * @return returns the number of max flows
+     */
+    public int getFlows()
+    {
+        return flows;
+    }
+
+    /*
+     * Finds the min cut between two vertices from the tree.  A parent always
+     * has a smaller number than its child, so stepping up from the larger
+     * of the two never passes the point where the paths meet.
+     * @param u is the first vertex
+     * @param v is the second vertex
+     * @return returns the min cut between them, or 0 if they are the same
+     */
+    public int minCut(int u, int v)
+    {
+        if (u == v)
+        {
+            return 0;
+        }
+        int best = Integer.MAX_VALUE;
+        while (u != v)
+        {
+            if (u > v)
+            {
+                best = Math.min(best, weight[u]);
+                u = parent[u];
+            }
+            else
+            {
+                best = Math.min(best, weight[v]);
+                v = parent[v];
+            }
+        }
+        return best;
+    }
+
+    /*
+     * Task that runs the max flows for a range of a batch, each on its own
+     * copy of the residual graph, and records the side of the cut each
+     * vertex ends up on.
+     */
+    @SuppressWarnings("serial")
+    private static class Flows extends RecursiveAction
+    {
+        private ResidualGraph r;
+        private int first;
+        private int[] used;
+        private int[] values;
+        private boolean[][] sides;
+        private int lo;
+        private int hi;
+
+        Flows(ResidualGraph r, int first, int[] used, int[] values, boolean[][] sides, int lo, int hi)
+        {
+            this.r = r;
+            this.first = first;
+            this.used = used;
+            this.values = values;
+            this.sides = sides;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute()
+        {
+            if (hi - lo > 1)
+            {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Flows(r, first, used, values, sides, lo, mid),
+                        new Flows(r, first, used, values, sides, mid, hi));
+                return;
+            }
+            ResidualGraph copy = new ResidualGraph(r);
+            int value = new Algorithms().dinicFlow(new FlowWorkspace(copy), first + lo, used[lo], true);
+            values[lo] = value;
+            sides[lo] = new FlowResult(copy, first + lo, value).getSourceSide();
+        }
+    }
+}
@@ -7,28 +7,22 @@
  */
 
 import java.io.FileNotFoundException;
-import java.util.ArrayList;
-import java.util.LinkedList;
 
 
 public abstract class Graph
 {
-    private int[][] matrix;
-    private int edges;
-    private ArrayList<LinkedList<Integer>> list;
-    abstract int[][] getMatrix();
-    abstract void setMatrix(int[][] matrix);
-    abstract ArrayList<LinkedList<Integer>> getList();
-    abstract void setList(ArrayList<LinkedList<Integer>> list);
+    abstract ResidualGraph getResidual();
+    abstract int getSource();
+    abstract int getSink();
+    abstract void setTerminals(int s, int t);
     abstract void resize(int numVertices);
     abstract int order();
     abstract int size();
     abstract boolean isEdge(int i, int j);
     abstract void addEdge(Integer i, Integer j, Integer k);
+    abstract void addEdge(Integer i, Integer j, Integer k, Integer c);
     abstract void printGraph();
     abstract Graph reader(String fileName) throws FileNotFoundException;
     abstract void printMatrix();
-    abstract void addToTaken(int i, int j, int value);
     abstract void printTaken();
 }
-
@@ -0,0 +1,456 @@
+/*
+ * GraphParser.java
+ * This class reads a graph file straight from its bytes.  The file is
+ * mapped into memory through its FileChannel, and the numbers are decoded
+ * byte by byte without making a String for any line.
+ *
+ * The format is the number of vertices on the first line, then one edge
+ * per line as "start end capacity" with an optional cost, and a line that
+ * starts with -1 at the end.  Blank lines are skipped.
+ *
+ * After the first line, the file is split at line breaks into chunks that
+ * are parsed on every thread of the common pool at once.  One pass counts
+ * the lines of each chunk, which gives every chunk its own part of the
+ * edge arrays to fill, so the arrays are allocated once at their full
+ * size and a graph can take them over as they are.  A second pass decodes
+ * the chunks, and the parts are then packed together in file order up to
+ * the line that ends the graph.
+ *
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class GraphParser
+{
+    //Largest chunk mapped at once, with room for it to grow to a line break
+    private static final int WINDOW = 1 << 29;
+    //Smallest chunk worth parsing on its own thread
+    private static final int MIN_CHUNK = 1 << 20;
+
+    private int vertices;
+    private int edges;
+    private int[] starts;
+    private int[] ends;
+    private int[] caps;
+    private int[] costs;
+
+    /*
+     * Constructor that reads a graph file.
+     * @param fileName is the file to read
+     * @throws FileNotFoundException if the file cannot be found
+     * @throws IOException if the file cannot be read
+     * @throws NumberFormatException if a line is not made of numbers
+     * @throws ArrayIndexOutOfBoundsException if an edge is outside the graph
+     */
+    public GraphParser(String fileName) throws IOException
+    {
+        try (FileInputStream in = new FileInputStream(fileName);
+             FileChannel channel = in.getChannel())
+        {
+            long size = channel.size();
+            Chunk header = new Chunk(channel, 0, Math.min(size, WINDOW), 1);
+            header.parseHeader();
+            long body = header.done ? size - header.to : 0;
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            int count = (int) Math.max((body + WINDOW - 1) / WINDOW, Math.min(4L * pool.getParallelism(), body / MIN_CHUNK));
+            Chunk[] chunks = new Chunk[count];
+            long from = header.to;
+            for (int i = 0; i < count; i++)
+            {
+                long to = i == count - 1 ? size : lineEnd(channel, Math.max(from, header.to + body * (i + 1) / count));
+                chunks[i] = new Chunk(channel, from, to, 0);
+                from = to;
+            }
+
+            //Every line of a chunk can hold an edge, so the lines place each chunk in the arrays
+            pool.invoke(new Pass(chunks, false, 0, count));
+            long room = 0;
+            long line = header.line + 1;
+            for (Chunk c : chunks)
+            {
+                c.at = (int) Math.min(room, Integer.MAX_VALUE);
+                c.line = line;
+                room += c.lines + 1;
+                line += c.lines;
+            }
+            room = Math.min(Integer.MAX_VALUE - 8, Math.max(4, room));
+            starts = new int[(int) room];
+            ends = new int[(int) room];
+            caps = new int[(int) room];
+            costs = new int[(int) room];
+            pool.invoke(new Pass(chunks, true, 0, count));
+
+            //Chunks after the one that ends the graph are ignored, even if they cannot be read
+            for (Chunk c : chunks)
+            {
+                if (c.error != null)
+                {
+                    throw c.error;
+                }
+                if (c.at != edges)
+                {
+                    System.arraycopy(starts, c.at, starts, edges, c.count);
+                    System.arraycopy(ends, c.at, ends, edges, c.count);
+                    System.arraycopy(caps, c.at, caps, edges, c.count);
+                    System.arraycopy(costs, c.at, costs, edges, c.count);
+                }
+                edges += c.count;
+                if (c.done)
+                {
+                    break;
+                }
+            }
+        }
+    }
+
+    /*
+     * Getter for the number of vertices.
+     * @return returns the number of vertices in the first line
+     */
+    public int getVertices()
+    {
+        return vertices;
+    }
+
+    /*
+     * Getter for the number of edges read.
+     * @return returns the number of edges
+     */
+    public int getEdges()
+    {
+        return edges;
+    }
+
+    /*
+     * Getter for the start of each edge.  The array may be longer than the
+     * number of edges.
+     * @return returns the start vertices
+     */
+    public int[] getStarts()
+    {
+        return starts;
+    }
+
+    /*
+     * Getter for the end of each edge.
+     * @return returns the end vertices
+     */
+    public int[] getEnds()
+    {
+        return ends;
+    }
+
+    /*
+     * Getter for the capacity of each edge.
+     * @return returns the capacities
+     */
+    public int[] getCaps()
+    {
+        return caps;
+    }
+
+    /*
+     * Getter for the cost of each edge, which is 0 where none was given.
+     * @return returns the costs
+     */
+    public int[] getCosts()
+    {
+        return costs;
+    }
+
+    /*
+     * Finds where the line holding a byte ends.
+     * @param channel is the open file
+     * @param at is the byte to start from
+     * @return returns the byte after the first line break at or after the
+     * one before at, or the size of the file if there is none
+     * @throws IOException if the file cannot be read
+     */
+    private static long lineEnd(FileChannel channel, long at) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+        long position = at - 1;
+        while (true)
+        {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0)
+            {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++)
+            {
+                if (buffer.get(i) == '\n')
+                {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    /*
+     * A part of the file that starts and ends at a line break, with the
+     * state of its decoder.
+     */
+    private class Chunk
+    {
+        private MappedByteBuffer buffer;
+        private long to;
+        private long lines;
+        private long line;
+        private int at;
+        private int count;
+        private boolean done;
+        private RuntimeException error;
+        private boolean inNumber;
+        private boolean negative;
+        private boolean digits;
+        private long value;
+        private int fieldCount;
+        private int[] fields;
+
+        Chunk(FileChannel channel, long from, long to, long line) throws IOException
+        {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            this.to = to;
+            this.line = line;
+            fields = new int[4];
+        }
+
+        /*
+         * Counts the line breaks in the chunk.
+         */
+        void countLines()
+        {
+            long found = 0;
+            int limit = buffer.limit();
+            for (int i = 0; i < limit; i++)
+            {
+                if (buffer.get(i) == '\n')
+                {
+                    found++;
+                }
+            }
+            lines = found;
+        }
+
+        /*
+         * Reads the number of vertices from the first line that is not
+         * blank, and moves the end of the chunk to just after that line.
+         */
+        void parseHeader()
+        {
+            int limit = buffer.limit();
+            for (int i = 0; i < limit; i++)
+            {
+                byte c = buffer.get(i);
+                if (c == '\n')
+                {
+                    endNumber();
+                    if (fieldCount > 0)
+                    {
+                        vertices = fields[0];
+                        to = i + 1;
+                        done = true;
+                        return;
+                    }
+                    line++;
+                }
+                else
+                {
+                    decode(c);
+                }
+            }
+            endNumber();
+            if (fieldCount > 0)
+            {
+                vertices = fields[0];
+            }
+        }
+
+        /*
+         * Decodes the edges of the chunk into its part of the edge arrays,
+         * stopping at the line that ends the graph.  An error is kept
+         * rather than thrown, since it only counts if no earlier chunk
+         * ends the graph.
+         */
+        void parseEdges()
+        {
+            try
+            {
+                int limit = buffer.limit();
+                for (int i = 0; i < limit && !done; i++)
+                {
+                    byte c = buffer.get(i);
+                    if (c == '\n')
+                    {
+                        endNumber();
+                        endLine();
+                        line++;
+                    }
+                    else
+                    {
+                        decode(c);
+                    }
+                }
+                if (!done)
+                {
+                    endNumber();
+                    endLine();
+                }
+            }
+            catch (RuntimeException e)
+            {
+                error = e;
+            }
+        }
+
+        /*
+         * Decodes one byte that is not a line break.
+         * @param c is the byte
+         */
+        private void decode(byte c)
+        {
+            if (c >= '0' && c <= '9')
+            {
+                if (!inNumber)
+                {
+                    inNumber = true;
+                    negative = false;
+                    value = 0;
+                }
+                value = value * 10 + (c - '0');
+                digits = true;
+                if (value > Integer.MAX_VALUE + 1L)
+                {
+                    throw new NumberFormatException("Number too large on line " + line + ".");
+                }
+            }
+            else if (c == '-' && !inNumber)
+            {
+                inNumber = true;
+                negative = true;
+                digits = false;
+                value = 0;
+            }
+            else if (c == ' ' || c == '\t' || c == '\r')
+            {
+                endNumber();
+            }
+            else
+            {
+                throw new NumberFormatException("Unexpected '" + (char) c + "' on line " + line + ".");
+            }
+        }
+
+        /*
+         * Finishes the number being decoded, if there is one, and keeps it
+         * as the next field of the line.
+         */
+        private void endNumber()
+        {
+            if (!inNumber)
+            {
+                return;
+            }
+            inNumber = false;
+            long number = negative ? -value : value;
+            if (!digits || number > Integer.MAX_VALUE)
+            {
+                throw new NumberFormatException("Bad number on line " + line + ".");
+            }
+            if (fieldCount < fields.length)
+            {
+                fields[fieldCount] = (int) number;
+            }
+            fieldCount++;
+        }
+
+        /*
+         * Finishes a line, adding its edge unless it starts with -1.
+         */
+        private void endLine()
+        {
+            int found = fieldCount;
+            fieldCount = 0;
+            if (found == 0)
+            {
+                return;
+            }
+            if (fields[0] == -1)
+            {
+                done = true;
+                return;
+            }
+            if (found < 3)
+            {
+                throw new NumberFormatException("Line " + line + " needs a start, an end and a capacity.");
+            }
+            int i = fields[0];
+            int j = fields[1];
+            if (i < 0 || i >= vertices || j < 0 || j >= vertices)
+            {
+                throw new ArrayIndexOutOfBoundsException("Edge (" + i + ", " + j + ") is outside the graph.");
+            }
+            int e = at + count;
+            starts[e] = i;
+            ends[e] = j;
+            caps[e] = fields[2];
+            costs[e] = found > 3 ? fields[3] : 0;
+            count++;
+        }
+    }
+
+    /*
+     * Task that counts the lines of a range of chunks, or parses their
+     * edges, one chunk to a task.
+     */
+    @SuppressWarnings("serial")
+    private static class Pass extends RecursiveAction
+    {
+        private Chunk[] chunks;
+        private boolean parse;
+        private int lo;
+        private int hi;
+
+        Pass(Chunk[] chunks, boolean parse, int lo, int hi)
+        {
+            this.chunks = chunks;
+            this.parse = parse;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute()
+        {
+            if (hi - lo > 1)
+            {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Pass(chunks, parse, lo, mid), new Pass(chunks, parse, mid, hi));
+                return;
+            }
+            if (lo == hi)
+            {
+                return;
+            }
+            if (parse)
+            {
+                chunks[lo].parseEdges();
+            }
+            else
+            {
+                chunks[lo].countLines();
+            }
+        }
+    }
+}
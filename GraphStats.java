@@ -0,0 +1,249 @@
+/*
+ * GraphStats.java
+ * This class measures the things about a graph that decide which max flow
+ * algorithm will be fastest on it.  Everything is found in a few passes
+ * over the arcs of the residual graph:
+ *   - The number of vertices and edges, and the density, which is the
+ *     share of the possible edges that are there.
+ *   - The largest capacity, and whether every capacity is 1.
+ *   - The source and sink, and a bound on the flow between them: the
+ *     smaller of the capacity out of the source and the capacity into the
+ *     sink.
+ *   - Whether the graph is bipartite, ignoring the direction of its edges,
+ *     and whether it is an assignment problem that Hopcroft-Karp can solve.
+ *   - An estimate of the diameter, from two breadth-first searches: one
+ *     from the source to find the vertex farthest from it, and one from that
+ *     vertex.  The estimate is never larger than the real diameter.
+ *
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+import java.util.concurrent.ForkJoinPool;
+
+public class GraphStats
+{
+    private int vertices;
+    private int edges;
+    private boolean directed;
+    private double density;
+    private int maxCapacity;
+    private boolean unitCapacity;
+    private int source;
+    private int sink;
+    private long flowBound;
+    private boolean bipartite;
+    private boolean assignment;
+    private int diameter;
+
+    /*
+     * Constructor that measures a graph.
+     * @param g is the graph to measure
+     */
+    public GraphStats(Graph g)
+    {
+        ResidualGraph r = g.getResidual();
+        int n = r.order();
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] capacities = r.getCapacities();
+        int[] reverse = r.getReverse();
+        vertices = n;
+        //An undirected graph counts each edge twice in size(), but every edge is one pair of arcs
+        edges = r.arcCount() / 2;
+        directed = !(g instanceof UndirectedGraph);
+        double possible = directed ? (double) n * (n - 1) : (double) n * (n - 1) / 2;
+        density = possible > 0 ? edges / possible : 0;
+        unitCapacity = true;
+        for (int a = 0; a < r.arcCount(); a++)
+        {
+            if (capacities[a] > 0)
+            {
+                maxCapacity = Math.max(maxCapacity, capacities[a]);
+                unitCapacity &= capacities[a] == 1;
+            }
+        }
+        if (n == 0)
+        {
+            return;
+        }
+        source = g.getSource();
+        sink = g.getSink();
+        long out = 0;
+        for (int a = offsets[source]; a < offsets[source + 1]; a++)
+        {
+            out += capacities[a];
+        }
+        long in = 0;
+        for (int a = offsets[sink]; a < offsets[sink + 1]; a++)
+        {
+            in += capacities[reverse[a]];
+        }
+        flowBound = Math.min(out, in);
+        assignment = source != sink && new HopcroftKarp(r, source, sink).fits();
+
+        //Both searches and the colouring follow edges either way
+        ParallelBFS bfs = new ParallelBFS(ForkJoinPool.commonPool(), r);
+        int[] levels = bfs.getLevels();
+        bfs.search(source, a -> capacities[a] > 0 || capacities[reverse[a]] > 0, true, -1);
+        int far = source;
+        for (int v = 0; v < n; v++)
+        {
+            if (levels[v] > levels[far])
+            {
+                far = v;
+            }
+        }
+        bfs.clear();
+        bfs.search(far, a -> capacities[a] > 0 || capacities[reverse[a]] > 0, true, -1);
+        for (int v = 0; v < n; v++)
+        {
+            diameter = Math.max(diameter, levels[v]);
+        }
+
+        //A graph is bipartite when no edge joins two vertices whose levels have the same parity
+        for (int v = 0; v < n; v++)
+        {
+            if (levels[v] == -1)
+            {
+                bfs.search(v, a -> capacities[a] > 0 || capacities[reverse[a]] > 0, true, -1);
+            }
+        }
+        bipartite = true;
+        for (int u = 0; u < n && bipartite; u++)
+        {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++)
+            {
+                if (capacities[a] > 0 && ((levels[u] ^ levels[targets[a]]) & 1) == 0)
+                {
+                    bipartite = false;
+                    break;
+                }
+            }
+        }
+    }
+
+    /*
+     * Getter for the number of vertices.
+     * @return returns the number of vertices
+     */
+    public int getVertices()
+    {
+        return vertices;
+    }
+
+    /*
+     * Getter for the number of edges.
+     * @return returns the number of edges
+     */
+    public int getEdges()
+    {
+        return edges;
+    }
+
+    /*
+     * Getter for whether the graph is directed.
+     * @return returns true if the graph is directed
+     */
+    public boolean isDirected()
+    {
+        return directed;
+    }
+
+    /*
+     * Getter for the share of the possible edges that are in the graph.
+     * @return returns the density, from 0 to 1 if there are no parallel edges
+     */
+    public double getDensity()
+    {
+        return density;
+    }
+
+    /*
+     * Getter for the largest capacity.
+     * @return returns the largest capacity
+     */
+    public int getMaxCapacity()
+    {
+        return maxCapacity;
+    }
+
+    /*
+     * Getter for whether every edge has capacity 1.
+     * @return returns true if every capacity is 1
+     */
+    public boolean isUnitCapacity()
+    {
+        return unitCapacity;
+    }
+
+    /*
+     * Getter for the vertex flow starts from.
+     * @return returns the source
+     */
+    public int getSource()
+    {
+        return source;
+    }
+
+    /*
+     * Getter for the vertex flow ends at.
+     * @return returns the sink
+     */
+    public int getSink()
+    {
+        return sink;
+    }
+
+    /*
+     * Getter for the bound on the flow from the source to the sink.
+     * @return returns the smaller of the capacity out of the source and
+     * into the sink
+     */
+    public long getFlowBound()
+    {
+        return flowBound;
+    }
+
+    /*
+     * Getter for whether the graph is bipartite.
+     * @return returns true if the vertices split into two sides with no
+     * edge inside a side
+     */
+    public boolean isBipartite()
+    {
+        return bipartite;
+    }
+
+    /*
+     * Getter for whether the graph is an assignment problem: capacity 1
+     * edges from the source to a left side, from there to a right side, and
+     * from there to the sink.
+     * @return returns true if Hopcroft-Karp can find the max flow
+     */
+    public boolean isAssignment()
+    {
+        return assignment;
+    }
+
+    /*
+     * Getter for the estimate of the diameter.
+     * @return returns the estimated diameter, at most the real one
+     */
+    public int getDiameter()
+    {
+        return diameter;
+    }
+
+    /*
+     * Returns the statistics as one line for printing.
+     * @return returns the statistics
+     */
+    public String toString()
+    {
+        return "Vertices: " + vertices + ", Edges: " + edges + ", Density: " + String.format("%.4f", density)
+                + ", Max capacity: " + maxCapacity + ", Unit capacities: " + unitCapacity
+                + ", Source: " + source + ", Sink: " + sink + ", Flow bound: " + flowBound
+                + ", Bipartite: " + bipartite + ", Assignment: " + assignment + ", Diameter: ~" + diameter;
+    }
+}
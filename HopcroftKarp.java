@@ -0,0 +1,318 @@
+/*
+ * HopcroftKarp.java
+ * This class finds the max flow of an assignment problem: a graph where
+ * every edge has capacity 1 and goes from the source to a left vertex,
+ * from a left vertex to a right vertex, or from a right vertex to the
+ * sink.  The max flow of such a graph is a maximum matching between the
+ * left vertices joined to the source and the right vertices joined to the
+ * sink, which the algorithm of Hopcroft and Karp finds in O(E sqrt(V))
+ * time.
+ *
+ * Each phase runs a breadth-first search from every unmatched left vertex
+ * along alternating paths, which layers the left vertices by the length
+ * of the shortest augmenting path through them, then a depth-first search
+ * that finds a maximal set of disjoint shortest augmenting paths in those
+ * layers.  There are at most 2 sqrt(V) phases.  The matching is kept in
+ * two int arrays and the searches use the arcs of the residual graph
+ * directly.  When it is done the matching is written back into the
+ * residual graph as a flow, so it prints and cuts like any other.
+ *
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+import java.util.Arrays;
+
+public class HopcroftKarp
+{
+    private static final int UNLAYERED = Integer.MAX_VALUE;
+    private static final int LEFT = 1;
+    private static final int RIGHT = 2;
+
+    private ResidualGraph r;
+    private int[] offsets;
+    private int[] targets;
+    private int[] capacities;
+    private boolean fits;
+    private int[] side;
+    private int[] left;
+    private int leftCount;
+    private int[] sourceArc;
+    private int[] sinkArc;
+    private int[] matchArc;
+    private int[] matchLeft;
+    private int[] layer;
+    private int[] current;
+    private int limit;
+    private int phases;
+
+    /*
+     * Constructor that checks whether a graph has the shape of an
+     * assignment problem between two vertices.
+     * @param r is the residual graph
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     */
+    public HopcroftKarp(ResidualGraph r, int source, int sink)
+    {
+        this.r = r;
+        int n = r.order();
+        offsets = r.getOffsets();
+        targets = r.getTargets();
+        capacities = r.getCapacities();
+        int[] reverse = r.getReverse();
+        side = new int[n];
+        sourceArc = new int[n];
+        sinkArc = new int[n];
+        left = new int[n];
+        leftCount = 0;
+        fits = false;
+        Arrays.fill(sourceArc, -1);
+        Arrays.fill(sinkArc, -1);
+        for (int a = offsets[source]; a < offsets[source + 1]; a++)
+        {
+            int v = targets[a];
+            if (capacities[a] > 0)
+            {
+                if (capacities[a] != 1 || v == sink || sourceArc[v] != -1)
+                {
+                    return;
+                }
+                side[v] = LEFT;
+                sourceArc[v] = a;
+                left[leftCount++] = v;
+            }
+        }
+        for (int a = offsets[sink]; a < offsets[sink + 1]; a++)
+        {
+            int u = targets[a];
+            int in = reverse[a];
+            if (capacities[in] > 0)
+            {
+                if (capacities[in] != 1 || u == source || side[u] == LEFT || sinkArc[u] != -1)
+                {
+                    return;
+                }
+                side[u] = RIGHT;
+                sinkArc[u] = in;
+            }
+        }
+        //Every other edge must go from a vertex on the left to one on the right
+        for (int u = 0; u < n; u++)
+        {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++)
+            {
+                int v = targets[a];
+                if (capacities[a] <= 0 || u == source || v == sink)
+                {
+                    continue;
+                }
+                if (capacities[a] != 1 || u == sink || v == source || side[u] == RIGHT || side[v] == LEFT)
+                {
+                    return;
+                }
+                side[u] = LEFT;
+                side[v] = RIGHT;
+            }
+        }
+        fits = true;
+    }
+
+    /*
+     * Returns whether the graph has the shape of an assignment problem.
+     * @return returns true if the max flow can be found as a matching
+     */
+    public boolean fits()
+    {
+        return fits;
+    }
+
+    /*
+     * Getter for the number of phases the last run took.
+     * @return returns the number of phases
+     */
+    public int getPhases()
+    {
+        return phases;
+    }
+
+    /*
+     * Finds a maximum matching and writes it into the residual graph as a
+     * flow.  The graph must fit, and should hold no flow beforehand.
+     * @return the number of matched pairs, which is the value of the max flow
+     */
+    public int maxFlow()
+    {
+        int n = r.order();
+        matchArc = new int[n];
+        matchLeft = new int[n];
+        layer = new int[n];
+        current = new int[n];
+        int[] queue = new int[n];
+        int[] stack = new int[n];
+        int[] path = new int[n];
+        Arrays.fill(matchArc, -1);
+        Arrays.fill(matchLeft, -1);
+        phases = 0;
+        int matched = 0;
+
+        //Start from a greedy matching so the first phases have less to do
+        for (int i = 0; i < leftCount; i++)
+        {
+            int u = left[i];
+            for (int a = offsets[u]; a < offsets[u + 1]; a++)
+            {
+                int v = targets[a];
+                if (capacities[a] > 0 && sinkArc[v] != -1 && matchLeft[v] == -1)
+                {
+                    matchArc[u] = a;
+                    matchLeft[v] = u;
+                    matched++;
+                    break;
+                }
+            }
+        }
+        while (layerLeft(queue))
+        {
+            phases++;
+            for (int i = 0; i < leftCount; i++)
+            {
+                int u = left[i];
+                current[u] = offsets[u];
+            }
+            for (int i = 0; i < leftCount; i++)
+            {
+                int u = left[i];
+                if (matchArc[u] == -1 && augment(u, stack, path))
+                {
+                    matched++;
+                }
+            }
+        }
+        for (int i = 0; i < leftCount; i++)
+        {
+            int u = left[i];
+            if (matchArc[u] != -1)
+            {
+                r.push(sourceArc[u], 1);
+                r.push(matchArc[u], 1);
+                r.push(sinkArc[targets[matchArc[u]]], 1);
+            }
+        }
+        return matched;
+    }
+
+    /*
+     * Layers the left vertices by a breadth-first search from every
+     * unmatched one, going to a right vertex along an edge and back to the
+     * left vertex it is matched to.  The search stops after the layer that
+     * first reaches an unmatched right vertex, and the length of that path
+     * is kept as the limit the depth-first search must end at.
+     * @param queue is the queue used by the search
+     * @return returns true if an augmenting path exists
+     */
+    private boolean layerLeft(int[] queue)
+    {
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < leftCount; i++)
+        {
+            int u = left[i];
+            if (matchArc[u] == -1)
+            {
+                layer[u] = 0;
+                queue[tail++] = u;
+            }
+            else
+            {
+                layer[u] = UNLAYERED;
+            }
+        }
+        limit = UNLAYERED;
+        while (head < tail)
+        {
+            int u = queue[head++];
+            if (layer[u] >= limit)
+            {
+                break;
+            }
+            for (int a = offsets[u]; a < offsets[u + 1]; a++)
+            {
+                if (capacities[a] <= 0 || sinkArc[targets[a]] == -1)
+                {
+                    continue;
+                }
+                int w = matchLeft[targets[a]];
+                if (w == -1)
+                {
+                    limit = layer[u] + 1;
+                }
+                else if (layer[w] == UNLAYERED)
+                {
+                    layer[w] = layer[u] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return limit != UNLAYERED;
+    }
+
+    /*
+     * Looks for a shortest augmenting path from an unmatched left vertex
+     * with an iterative depth-first search through the layers, and flips
+     * the matching along it if one is found.  Left vertices that lead
+     * nowhere are taken out of the layers.
+     * @param root is the unmatched left vertex to start from
+     * @param stack holds the left vertices on the path
+     * @param path holds the arc taken out of each left vertex on the path
+     * @return returns true if the matching grew
+     */
+    private boolean augment(int root, int[] stack, int[] path)
+    {
+        int depth = 0;
+        stack[0] = root;
+        while (true)
+        {
+            int u = stack[depth];
+            int a = current[u];
+            while (a < offsets[u + 1])
+            {
+                if (capacities[a] > 0 && sinkArc[targets[a]] != -1)
+                {
+                    int w = matchLeft[targets[a]];
+                    if (w == -1 ? layer[u] + 1 == limit : layer[w] == layer[u] + 1)
+                    {
+                        break;
+                    }
+                }
+                a++;
+            }
+            current[u] = a;
+            if (a == offsets[u + 1])
+            {
+                layer[u] = UNLAYERED;
+                if (depth == 0)
+                {
+                    return false;
+                }
+                depth--;
+                continue;
+            }
+            path[depth] = a;
+            current[u]++;
+            int w = matchLeft[targets[a]];
+            if (w != -1)
+            {
+                stack[++depth] = w;
+                continue;
+            }
+            //Every left vertex on the path takes the right vertex after it
+            for (int i = 0; i <= depth; i++)
+            {
+                matchArc[stack[i]] = path[i];
+                matchLeft[targets[path[i]]] = stack[i];
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * IndexedMaxHeap.java
+ * This class is a binary max-heap of the vertices 0 to n - 1 keyed by long
+ * values.  The position of every vertex in the heap is kept in an array,
+ * so a key can be raised in O(log n) without searching for the vertex.
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+public class IndexedMaxHeap
+{
+    private int[] heap;
+    private int[] position;
+    private long[] keys;
+    private int size;
+
+    /*
+     * Constructor for an empty heap.
+     * @param n is the number of vertices that can be in the heap
+     */
+    public IndexedMaxHeap(int n)
+    {
+        heap = new int[n];
+        position = new int[n];
+        keys = new long[n];
+        for (int i = 0; i < n; i++)
+        {
+            position[i] = -1;
+        }
+        size = 0;
+    }
+
+    /*
+     * Returns whether the heap is empty.
+     * @return returns true if there is nothing in the heap
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /*
+     * Returns whether a vertex is in the heap.
+     * @param v is the vertex
+     * @return returns true if the vertex is in the heap
+     */
+    public boolean contains(int v)
+    {
+        return position[v] != -1;
+    }
+
+    /*
+     * Returns the key of a vertex.
+     * @param v is the vertex
+     * @return returns the key of the vertex
+     */
+    public long key(int v)
+    {
+        return keys[v];
+    }
+
+    /*
+     * Adds a vertex to the heap.
+     * @param v is the vertex
+     * @param key is the key of the vertex
+     */
+    public void insert(int v, long key)
+    {
+        keys[v] = key;
+        heap[size] = v;
+        position[v] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    /*
+     * Raises the key of a vertex in the heap.
+     * @param v is the vertex
+     * @param amount is how much to add to the key
+     */
+    public void increase(int v, long amount)
+    {
+        keys[v] += amount;
+        siftUp(position[v]);
+    }
+
+    /*
+     * Removes the vertex with the largest key.
+     * @return returns the vertex that was removed
+     */
+    public int extractMax()
+    {
+        int top = heap[0];
+        size--;
+        position[top] = -1;
+        if (size > 0)
+        {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /*
+     * Removes every vertex from the heap.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /*
+     * Moves the vertex at index i up until its parent is not smaller.
+     * @param i is the index in the heap
+     */
+    private void siftUp(int i)
+    {
+        int v = heap[i];
+        while (i > 0)
+        {
+            int parent = (i - 1) / 2;
+            if (keys[heap[parent]] >= keys[v])
+            {
+                break;
+            }
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        position[v] = i;
+    }
+
+    /*
+     * Moves the vertex at index i down until its children are not larger.
+     * @param i is the index in the heap
+     */
+    private void siftDown(int i)
+    {
+        int v = heap[i];
+        while (2 * i + 1 < size)
+        {
+            int child = 2 * i + 1;
+            if (child + 1 < size && keys[heap[child + 1]] > keys[heap[child]])
+            {
+                child++;
+            }
+            if (keys[heap[child]] <= keys[v])
+            {
+                break;
+            }
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = v;
+        position[v] = i;
+    }
+}
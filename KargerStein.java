@@ -0,0 +1,494 @@
+/*
+ * KargerStein.java
+ * This class runs the Karger-Stein recursive contraction algorithm for the
+ * global min cut, with independent trials spread over a ForkJoinPool.
+ *
+ * One trial contracts the graph down to about n / sqrt(2) vertices twice,
+ * recurses on both results and keeps the smaller cut.  Edges are picked in
+ * proportion to their weight.  Once a graph is down to 32 vertices its min
+ * cut is found exactly with Stoer-Wagner, which is much cheaper than the
+ * rest of the recursion tree would be.  A trial finds the min cut with
+ * probability at least 1 / (2 log2 n + 1), so enough trials are run to reach
+ * the success probability the caller asks for.  Every trial works on its
+ * own copy of the edge arrays and its own random generator, so the trials
+ * share nothing and run fully in parallel.
+ *
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class KargerStein
+{
+    //Graphs this small are cut exactly instead of contracted further
+    private static final int EXACT = 32;
+
+    private ForkJoinPool pool;
+    private int trials;
+
+    /*
+     * A cut of the graph: its weight and which side each vertex is on.
+     */
+    public static class Cut
+    {
+        private long value;
+        private boolean[] side;
+
+        public Cut(long value, boolean[] side)
+        {
+            this.value = value;
+            this.side = side;
+        }
+
+        /*
+         * Getter for the weight of the cut.
+         * @return returns the total weight of the edges across the cut
+         */
+        public long getValue()
+        {
+            return value;
+        }
+
+        /*
+         * Getter for the sides of the cut.
+         * @return returns true for the vertices on one side
+         */
+        public boolean[] getSide()
+        {
+            return side;
+        }
+    }
+
+    /*
+     * Constructor that runs the trials on a given pool.
+     * @param pool is the pool to run the trials on
+     */
+    public KargerStein(ForkJoinPool pool)
+    {
+        this.pool = pool;
+    }
+
+    /*
+     * Getter for the number of trials the last run used.
+     * @return returns the number of trials
+     */
+    public int getTrials()
+    {
+        return trials;
+    }
+
+    /*
+     * Returns how many trials are needed to find the min cut with a given
+     * probability.
+     * @param n is the number of vertices
+     * @param probability is the chance of success wanted
+     * @return returns the number of trials
+     */
+    public static int trialsFor(int n, double probability)
+    {
+        double single = 1.0 / (2 * Math.log(Math.max(n, 2)) / Math.log(2) + 1);
+        double needed = Math.log(1 - probability) / Math.log(1 - single);
+        return Math.max(1, (int) Math.ceil(needed));
+    }
+
+    /*
+     * Finds the smallest cut over enough trials to reach a success probability.
+     * The arrays are only read; each trial copies them.
+     * @param n is the number of vertices
+     * @param m is the number of edges
+     * @param starts holds the first vertex of each edge
+     * @param ends holds the second vertex of each edge
+     * @param weights holds the weight of each edge
+     * @param probability is the chance of success wanted
+     * @param seed is the seed the trials' random generators are split from
+     * @return returns the best cut found
+     */
+    public Cut minCut(int n, int m, int[] starts, int[] ends, int[] weights, double probability, long seed)
+    {
+        trials = trialsFor(n, probability);
+        return pool.invoke(new Trials(n, m, starts, ends, weights, seed, 0, trials));
+    }
+
+    /*
+     * Runs one trial on a private copy of the edges.
+     * @param n is the number of vertices
+     * @param m is the number of edges
+     * @param starts holds the first vertex of each edge
+     * @param ends holds the second vertex of each edge
+     * @param weights holds the weight of each edge
+     * @param random is the random generator for the trial
+     * @return returns the best cut the trial found
+     */
+    private static Cut trial(int n, int m, int[] starts, int[] ends, int[] weights, SplittableRandom random)
+    {
+        int[] eu = new int[m];
+        int[] ev = new int[m];
+        long[] ew = new long[m];
+        for (int i = 0; i < m; i++)
+        {
+            eu[i] = starts[i];
+            ev[i] = ends[i];
+            ew[i] = weights[i];
+        }
+        return recurse(n, m, eu, ev, ew, random);
+    }
+
+    /*
+     * Finds a small cut of a graph by recursive contraction.  Parallel edges
+     * are kept as one edge with their weights added, and an edge is picked
+     * with probability in proportion to its weight.
+     * @param k is the number of vertices
+     * @param m is the number of edges
+     * @param eu holds the first vertex of each edge
+     * @param ev holds the second vertex of each edge
+     * @param ew holds the weight of each edge
+     * @param random is the random generator for the trial
+     * @return returns the best cut found, with one side entry per vertex
+     */
+    private static Cut recurse(int k, int m, int[] eu, int[] ev, long[] ew, SplittableRandom random)
+    {
+        if (m == 0)
+        {
+            boolean[] side = new boolean[k];
+            side[0] = true;
+            return new Cut(0, side);
+        }
+        if (k <= EXACT)
+        {
+            return exact(k, m, eu, ev, ew);
+        }
+        int target = (int) Math.ceil(1 + k / Math.sqrt(2));
+        Cut best = null;
+        for (int branch = 0; branch < 2; branch++)
+        {
+            int[] cu = Arrays.copyOf(eu, m);
+            int[] cv = Arrays.copyOf(ev, m);
+            long[] cw = Arrays.copyOf(ew, m);
+            int[] map = new int[k];
+            int[] sizes = contract(k, m, cu, cv, cw, target, random, map);
+            Cut child = recurse(sizes[0], sizes[1], cu, cv, cw, random);
+            if (best == null || child.getValue() < best.getValue())
+            {
+                boolean[] side = new boolean[k];
+                for (int v = 0; v < k; v++)
+                {
+                    side[v] = child.getSide()[map[v]];
+                }
+                best = new Cut(child.getValue(), side);
+            }
+        }
+        return best;
+    }
+
+    /*
+     * Contracts random edges until only target vertices are left, then
+     * renumbers the vertices and merges the edges that are left.  Edges are
+     * picked by weight with a binary search over prefix sums; an edge that
+     * has already ended up inside one vertex is skipped, and the sums are
+     * rebuilt without those edges once half the picks are being skipped.
+     * @param k is the number of vertices
+     * @param m is the number of edges
+     * @param eu holds the first vertex of each edge, rewritten in place
+     * @param ev holds the second vertex of each edge, rewritten in place
+     * @param ew holds the weight of each edge, rewritten in place
+     * @param target is the number of vertices to stop at
+     * @param random is the random generator for the trial
+     * @param map is filled with the new number of each old vertex
+     * @return returns the number of vertices and edges that are left
+     */
+    private static int[] contract(int k, int m, int[] eu, int[] ev, long[] ew, int target, SplittableRandom random, int[] map)
+    {
+        UnionFind groups = new UnionFind(k);
+        int live = m;
+        long[] prefix = new long[m + 1];
+        int skipped = live;
+        while (groups.groups() > target && live > 0)
+        {
+            if (skipped * 2 >= live)
+            {
+                live = dropInternal(groups, live, eu, ev, ew);
+                for (int i = 0; i < live; i++)
+                {
+                    prefix[i + 1] = prefix[i] + ew[i];
+                }
+                skipped = 0;
+                if (live == 0)
+                {
+                    break;
+                }
+            }
+            long pick = random.nextLong(prefix[live]);
+            int i = upperBound(prefix, live, pick);
+            if (!groups.union(eu[i], ev[i]))
+            {
+                skipped++;
+            }
+        }
+        int[] number = new int[k];
+        Arrays.fill(number, -1);
+        int vertices = 0;
+        for (int v = 0; v < k; v++)
+        {
+            int root = groups.find(v);
+            if (number[root] == -1)
+            {
+                number[root] = vertices++;
+            }
+            map[v] = number[root];
+        }
+        for (int i = 0; i < live; i++)
+        {
+            eu[i] = map[eu[i]];
+            ev[i] = map[ev[i]];
+        }
+        int edges = mergeParallel(vertices, live, eu, ev, ew);
+        return new int[] {vertices, edges};
+    }
+
+    /*
+     * Moves the edges whose ends are in different vertices to the front.
+     * @param groups holds the vertex each original vertex is now in
+     * @param live is the number of edges to look at
+     * @param eu holds the first vertex of each edge
+     * @param ev holds the second vertex of each edge
+     * @param ew holds the weight of each edge
+     * @return returns the number of edges kept
+     */
+    private static int dropInternal(UnionFind groups, int live, int[] eu, int[] ev, long[] ew)
+    {
+        int kept = 0;
+        for (int i = 0; i < live; i++)
+        {
+            if (groups.find(eu[i]) != groups.find(ev[i]))
+            {
+                eu[kept] = eu[i];
+                ev[kept] = ev[i];
+                ew[kept] = ew[i];
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    /*
+     * Merges edges between the same two vertices and drops the edges that
+     * start and end at the same vertex.  The weights of merged edges are
+     * added together.
+     * @param k is the number of vertices
+     * @param m is the number of edges
+     * @param eu holds the first vertex of each edge
+     * @param ev holds the second vertex of each edge
+     * @param ew holds the weight of each edge
+     * @return returns the number of edges kept
+     */
+    private static int mergeParallel(int k, int m, int[] eu, int[] ev, long[] ew)
+    {
+        //Bucket the edges by their smaller end
+        int[] start = new int[k + 1];
+        for (int i = 0; i < m; i++)
+        {
+            if (eu[i] != ev[i])
+            {
+                start[Math.min(eu[i], ev[i]) + 1]++;
+            }
+        }
+        for (int v = 0; v < k; v++)
+        {
+            start[v + 1] += start[v];
+        }
+        int total = start[k];
+        int[] order = new int[total];
+        int[] next = Arrays.copyOf(start, k);
+        for (int i = 0; i < m; i++)
+        {
+            if (eu[i] != ev[i])
+            {
+                order[next[Math.min(eu[i], ev[i])]++] = i;
+            }
+        }
+        int[] nu = new int[total];
+        int[] nv = new int[total];
+        long[] nw = new long[total];
+        int[] slot = new int[k];
+        Arrays.fill(slot, -1);
+        int kept = 0;
+        for (int u = 0; u < k; u++)
+        {
+            int first = kept;
+            for (int j = start[u]; j < start[u + 1]; j++)
+            {
+                int i = order[j];
+                int v = Math.max(eu[i], ev[i]);
+                if (slot[v] < first)
+                {
+                    slot[v] = kept;
+                    nu[kept] = u;
+                    nv[kept] = v;
+                    nw[kept] = 0;
+                    kept++;
+                }
+                nw[slot[v]] += ew[i];
+            }
+        }
+        System.arraycopy(nu, 0, eu, 0, kept);
+        System.arraycopy(nv, 0, ev, 0, kept);
+        System.arraycopy(nw, 0, ew, 0, kept);
+        return kept;
+    }
+
+    /*
+     * Finds the first index whose prefix sum is past a value.
+     * @param prefix holds the prefix sums, with prefix[0] equal to 0
+     * @param size is the number of entries after prefix[0]
+     * @param value is the value to look for
+     * @return returns the index i with prefix[i] <= value < prefix[i + 1]
+     */
+    private static int upperBound(long[] prefix, int size, long value)
+    {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (prefix[mid + 1] <= value)
+            {
+                lo = mid + 1;
+            }
+            else
+            {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /*
+     * Finds the min cut of a small graph exactly with Stoer-Wagner on a
+     * dense weight matrix, in O(k^3) time.
+     * @param k is the number of vertices
+     * @param m is the number of edges
+     * @param eu holds the first vertex of each edge
+     * @param ev holds the second vertex of each edge
+     * @param ew holds the weight of each edge
+     * @return returns the min cut
+     */
+    private static Cut exact(int k, int m, int[] eu, int[] ev, long[] ew)
+    {
+        long[][] weight = new long[k][k];
+        for (int i = 0; i < m; i++)
+        {
+            weight[eu[i]][ev[i]] += ew[i];
+            weight[ev[i]][eu[i]] += ew[i];
+        }
+        //Each merged vertex is a linked list of the vertices in it
+        int[] nextMember = new int[k];
+        int[] lastMember = new int[k];
+        boolean[] merged = new boolean[k];
+        boolean[] added = new boolean[k];
+        long[] key = new long[k];
+        for (int v = 0; v < k; v++)
+        {
+            nextMember[v] = -1;
+            lastMember[v] = v;
+        }
+        long best = Long.MAX_VALUE;
+        boolean[] side = new boolean[k];
+        for (int phase = 1; phase < k; phase++)
+        {
+            for (int v = 0; v < k; v++)
+            {
+                added[v] = merged[v];
+                key[v] = 0;
+            }
+            int prev = -1;
+            int last = -1;
+            for (int step = phase; step <= k; step++)
+            {
+                int u = -1;
+                for (int v = 0; v < k; v++)
+                {
+                    if (!added[v] && (u == -1 || key[v] > key[u]))
+                    {
+                        u = v;
+                    }
+                }
+                added[u] = true;
+                prev = last;
+                last = u;
+                for (int v = 0; v < k; v++)
+                {
+                    if (!added[v])
+                    {
+                        key[v] += weight[u][v];
+                    }
+                }
+            }
+            if (key[last] < best)
+            {
+                best = key[last];
+                Arrays.fill(side, false);
+                for (int x = last; x != -1; x = nextMember[x])
+                {
+                    side[x] = true;
+                }
+            }
+            for (int v = 0; v < k; v++)
+            {
+                weight[prev][v] += weight[last][v];
+                weight[v][prev] = weight[prev][v];
+            }
+            weight[prev][prev] = 0;
+            nextMember[lastMember[prev]] = last;
+            lastMember[prev] = lastMember[last];
+            merged[last] = true;
+        }
+        return new Cut(best, side);
+    }
+
+    /*
+     * Task that runs a range of trials and keeps the best cut.
+     */
+    @SuppressWarnings("serial")
+    private static class Trials extends RecursiveTask<Cut>
+    {
+        private int n;
+        private int m;
+        private int[] starts;
+        private int[] ends;
+        private int[] weights;
+        private long seed;
+        private int lo;
+        private int hi;
+
+        Trials(int n, int m, int[] starts, int[] ends, int[] weights, long seed, int lo, int hi)
+        {
+            this.n = n;
+            this.m = m;
+            this.starts = starts;
+            this.ends = ends;
+            this.weights = weights;
+            this.seed = seed;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected Cut compute()
+        {
+            if (hi - lo > 1)
+            {
+                int mid = (lo + hi) >>> 1;
+                Trials left = new Trials(n, m, starts, ends, weights, seed, lo, mid);
+                left.fork();
+                Cut right = new Trials(n, m, starts, ends, weights, seed, mid, hi).compute();
+                Cut other = left.join();
+                return other.getValue() <= right.getValue() ? other : right;
+            }
+            SplittableRandom random = new SplittableRandom(seed + lo * 0x9E3779B97F4A7C15L);
+            return trial(n, m, starts, ends, weights, random);
+        }
+    }
+}
@@ -0,0 +1,488 @@
+/*
+ * ParallelBFS.java
+ * This class runs breadth-first searches through the arcs of a residual
+ * graph on several threads at once.  Dinic's algorithm builds its layers
+ * with it, the parallel push-relabel solver recomputes its labels with it,
+ * and the min cut of a finished flow is read from it.
+ *
+ * The search goes one level at a time.  While the frontier is small it is
+ * kept as a list and expanded top-down, by scanning the arcs out of every
+ * frontier vertex.  Once the arcs out of the frontier pass a share of the
+ * arcs not looked at yet, it is kept as a bitmap and expanded bottom-up
+ * instead: every vertex not yet visited looks for a parent in the frontier
+ * and stops at the first one it finds, which skips most of the arcs of a
+ * large frontier.  When the frontier shrinks again the search goes back
+ * to top-down.  This is the direction-optimizing search of Beamer,
+ * Asanovic and Patterson.  A residual graph often has many vertices that
+ * cannot be reached at all, and bottom-up scans every arc of those on
+ * every level.  So once a bottom-up level looks at more arcs than the
+ * next top-down level would, every later search stays top-down: the
+ * solvers search the same graph over and over, and the part that cannot
+ * be reached only tends to grow as the flow fills it.
+ *
+ * Each level is split between the threads of a ForkJoinPool.  Top-down
+ * tasks claim a vertex by setting its bit in the visited bitmap with a
+ * compare-and-set.  Bottom-up tasks each own a run of 64-bit words of the
+ * bitmaps, so they never write to the same word.  Handing a level to the
+ * pool costs a few microseconds, which is more than a small level takes,
+ * so small levels and pools of one thread run on the calling thread.
+ *
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntPredicate;
+
+public class ParallelBFS
+{
+    //Number of frontier vertices one top-down task handles before splitting
+    private static final int GRAIN = 256;
+    //Number of bitmap words one bottom-up task handles before splitting
+    private static final int WORD_GRAIN = 64;
+    //Go bottom-up once the frontier has more than 1/ALPHA of the arcs left
+    private static final int ALPHA = 14;
+    //Go back top-down once the frontier has fewer than 1/BETA of the vertices
+    private static final int BETA = 24;
+
+    private ForkJoinPool pool;
+    private int n;
+    private int words;
+    private int[] offsets;
+    private int[] targets;
+    private int[] reverse;
+    private int[] levels;
+    private AtomicLongArray visited;
+    private long[] frontierBits;
+    private long[] nextBits;
+    private int[] frontier;
+    private int[] next;
+    private AtomicInteger nextSize;
+    private AtomicLong nextArcs;
+    private AtomicLong scanned;
+    private long explored;
+    private boolean wasteful;
+
+    //The search being run, read by the tasks
+    private IntPredicate open;
+    private boolean forward;
+    private int level;
+
+    /*
+     * Constructor that sets up the searches of a residual graph.
+     * @param pool is the pool to run the levels on
+     * @param r is the residual graph to search
+     */
+    public ParallelBFS(ForkJoinPool pool, ResidualGraph r)
+    {
+        this.pool = pool;
+        n = r.order();
+        words = (n + 63) >>> 6;
+        offsets = r.getOffsets();
+        targets = r.getTargets();
+        reverse = r.getReverse();
+        levels = new int[n];
+        visited = new AtomicLongArray(words);
+        frontierBits = new long[words];
+        nextBits = new long[words];
+        frontier = new int[n];
+        next = new int[n];
+        nextSize = new AtomicInteger();
+        nextArcs = new AtomicLong();
+        scanned = new AtomicLong();
+        clear();
+    }
+
+    /*
+     * Getter for the level of each vertex, which is -1 for the vertices no
+     * search has reached.
+     * @return returns the level of each vertex
+     */
+    public int[] getLevels()
+    {
+        return levels;
+    }
+
+    /*
+     * Forgets every level so that a new set of searches can be run.
+     */
+    public void clear()
+    {
+        Arrays.fill(levels, -1);
+        for (int i = 0; i < words; i++)
+        {
+            visited.set(i, 0);
+        }
+        if ((n & 63) != 0)
+        {
+            //The bits past the last vertex count as visited so they are never searched
+            visited.set(words - 1, -1L << (n & 63));
+        }
+        explored = 0;
+    }
+
+    /*
+     * Gives a vertex a level without searching from it.  Later searches
+     * treat it as visited.
+     * @param v is the vertex
+     * @param level is its level
+     */
+    public void setLevel(int v, int level)
+    {
+        levels[v] = level;
+        visited.set(v >>> 6, visited.get(v >>> 6) | (1L << v));
+    }
+
+    /*
+     * Searches from a vertex, giving every vertex it reaches that does not
+     * have a level yet one more than the vertex it was reached from.  The
+     * start gets level 0 unless it already has one.
+     * @param root is the vertex to search from
+     * @param open tells whether an arc has residual capacity
+     * @param forward is whether to follow arcs forward, or backward to find
+     *        the vertices that can reach the root
+     * @param stop is a vertex to stop at once it is reached, or -1 to search
+     *        everything; other vertices on its level may be left without one
+     * @return returns the number of vertices given a level
+     */
+    public int search(int root, IntPredicate open, boolean forward, int stop)
+    {
+        this.open = open;
+        this.forward = forward;
+        int labelled = 0;
+        if (levels[root] == -1)
+        {
+            setLevel(root, 0);
+            labelled++;
+        }
+        level = levels[root];
+        frontier[0] = root;
+        int size = 1;
+        int previous = 0;
+        long arcs = offsets[root + 1] - offsets[root];
+        boolean bottomUp = false;
+        while (size > 0 && (stop < 0 || levels[stop] == -1))
+        {
+            explored += arcs;
+            if (!bottomUp && !wasteful && arcs > (offsets[n] - explored) / ALPHA)
+            {
+                toBitmap(size);
+                bottomUp = true;
+            }
+            else if (bottomUp && (wasteful || size < previous && size < n / BETA))
+            {
+                toList();
+                bottomUp = false;
+            }
+            nextSize.set(0);
+            nextArcs.set(0);
+            scanned.set(0);
+            if (bottomUp)
+            {
+                if (inline(words <= WORD_GRAIN))
+                {
+                    bottomUp(0, words);
+                }
+                else
+                {
+                    run(new BottomUp(0, words));
+                }
+                long[] swap = frontierBits;
+                frontierBits = nextBits;
+                nextBits = swap;
+                wasteful |= scanned.get() > nextArcs.get();
+            }
+            else
+            {
+                if (inline(size <= GRAIN))
+                {
+                    topDownAlone(size, stop);
+                }
+                else
+                {
+                    run(new TopDown(0, size));
+                }
+                int[] swap = frontier;
+                frontier = next;
+                next = swap;
+            }
+            previous = size;
+            size = nextSize.get();
+            arcs = nextArcs.get();
+            labelled += size;
+            level++;
+        }
+        return labelled;
+    }
+
+    /*
+     * Returns whether a level should be expanded on the calling thread
+     * without making any tasks.
+     * @param small is whether the level is too small to split
+     * @return returns true if the level should not be split
+     */
+    private boolean inline(boolean small)
+    {
+        return small || pool.getParallelism() == 1;
+    }
+
+    /*
+     * Runs a task on the pool, or on the pool the calling thread is
+     * already working for.
+     * @param task is the task to run
+     */
+    private void run(RecursiveAction task)
+    {
+        if (ForkJoinTask.inForkJoinPool())
+        {
+            task.invoke();
+        }
+        else
+        {
+            pool.invoke(task);
+        }
+    }
+
+    /*
+     * Turns the frontier list into a bitmap.
+     * @param size is the number of vertices in the frontier
+     */
+    private void toBitmap(int size)
+    {
+        Arrays.fill(frontierBits, 0);
+        for (int i = 0; i < size; i++)
+        {
+            frontierBits[frontier[i] >>> 6] |= 1L << frontier[i];
+        }
+    }
+
+    /*
+     * Turns the frontier bitmap into a list.
+     */
+    private void toList()
+    {
+        int size = 0;
+        for (int i = 0; i < words; i++)
+        {
+            long bits = frontierBits[i];
+            while (bits != 0)
+            {
+                frontier[size++] = (i << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /*
+     * Claims a vertex for the level being built.
+     * @param v is the vertex
+     * @return returns false if it was already visited
+     */
+    private boolean claim(int v)
+    {
+        int i = v >>> 6;
+        long bit = 1L << v;
+        while (true)
+        {
+            long old = visited.get(i);
+            if ((old & bit) != 0)
+            {
+                return false;
+            }
+            if (visited.compareAndSet(i, old, old | bit))
+            {
+                return true;
+            }
+        }
+    }
+
+    /*
+     * Expands the frontier list on the calling thread alone, which needs
+     * no compare-and-set and can stop in the middle of the level.
+     * @param size is the number of vertices in the frontier
+     * @param stop is the vertex to stop at, or -1
+     */
+    private void topDownAlone(int size, int stop)
+    {
+        int[] offsets = this.offsets;
+        int[] targets = this.targets;
+        int[] reverse = this.reverse;
+        int[] levels = this.levels;
+        int[] frontier = this.frontier;
+        int[] next = this.next;
+        IntPredicate open = this.open;
+        boolean forward = this.forward;
+        int count = 0;
+        long arcs = 0;
+        int following = level + 1;
+        for (int i = 0; i < size; i++)
+        {
+            int w = frontier[i];
+            for (int a = offsets[w]; a < offsets[w + 1]; a++)
+            {
+                int u = targets[a];
+                if (levels[u] == -1 && open.test(forward ? a : reverse[a]))
+                {
+                    levels[u] = following;
+                    visited.lazySet(u >>> 6, visited.get(u >>> 6) | (1L << u));
+                    arcs += offsets[u + 1] - offsets[u];
+                    next[count++] = u;
+                    if (u == stop)
+                    {
+                        i = size;
+                        break;
+                    }
+                }
+            }
+        }
+        nextSize.set(count);
+        nextArcs.set(arcs);
+    }
+
+    /*
+     * Expands a range of the frontier list by scanning the arcs out of
+     * each of its vertices.  The vertices found go into a small buffer of
+     * the task's own and are copied into the next frontier together, so
+     * the threads only meet on its size once per task.
+     * @param lo is the first frontier entry
+     * @param hi is one past the last frontier entry
+     */
+    private void topDown(int lo, int hi)
+    {
+        int[] found = new int[Math.min(16, n)];
+        int count = 0;
+        long arcs = 0;
+        int following = level + 1;
+        for (int i = lo; i < hi; i++)
+        {
+            int w = frontier[i];
+            for (int a = offsets[w]; a < offsets[w + 1]; a++)
+            {
+                int u = targets[a];
+                //A level that is set is never cleared, so it only needs claiming if it looks unset
+                if (levels[u] == -1 && open.test(forward ? a : reverse[a]) && claim(u))
+                {
+                    levels[u] = following;
+                    arcs += offsets[u + 1] - offsets[u];
+                    if (count == found.length)
+                    {
+                        found = Arrays.copyOf(found, 2 * count);
+                    }
+                    found[count++] = u;
+                }
+            }
+        }
+        int base = nextSize.getAndAdd(count);
+        System.arraycopy(found, 0, next, base, count);
+        nextArcs.addAndGet(arcs);
+    }
+
+    /*
+     * Finds which vertices in a range of bitmap words have a parent in the
+     * frontier bitmap.
+     * @param lo is the first word
+     * @param hi is one past the last word
+     */
+    private void bottomUp(int lo, int hi)
+    {
+        int count = 0;
+        long arcs = 0;
+        long looked = 0;
+        int following = level + 1;
+        for (int i = lo; i < hi; i++)
+        {
+            long seen = visited.get(i);
+            long bits = ~seen;
+            long found = 0;
+            while (bits != 0)
+            {
+                int v = (i << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int a = offsets[v];
+                while (a < offsets[v + 1])
+                {
+                    int u = targets[a];
+                    if ((frontierBits[u >>> 6] & (1L << u)) != 0 && open.test(forward ? reverse[a] : a))
+                    {
+                        levels[v] = following;
+                        arcs += offsets[v + 1] - offsets[v];
+                        found |= 1L << v;
+                        count++;
+                        break;
+                    }
+                    a++;
+                }
+                looked += a - offsets[v];
+            }
+            nextBits[i] = found;
+            if (found != 0)
+            {
+                //Only this task writes word i during a bottom-up level
+                visited.lazySet(i, seen | found);
+            }
+        }
+        nextSize.addAndGet(count);
+        nextArcs.addAndGet(arcs);
+        scanned.addAndGet(looked);
+    }
+
+    /*
+     * Task that expands a range of the frontier list.
+     */
+    @SuppressWarnings("serial")
+    private class TopDown extends RecursiveAction
+    {
+        private int lo;
+        private int hi;
+
+        TopDown(int lo, int hi)
+        {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute()
+        {
+            if (hi - lo > GRAIN)
+            {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new TopDown(lo, mid), new TopDown(mid, hi));
+                return;
+            }
+            topDown(lo, hi);
+        }
+    }
+
+    /*
+     * Task that expands a range of the frontier bitmap's words.
+     */
+    @SuppressWarnings("serial")
+    private class BottomUp extends RecursiveAction
+    {
+        private int lo;
+        private int hi;
+
+        BottomUp(int lo, int hi)
+        {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute()
+        {
+            if (hi - lo > WORD_GRAIN)
+            {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new BottomUp(lo, mid), new BottomUp(mid, hi));
+                return;
+            }
+            bottomUp(lo, hi);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * ParallelPushRelabel.java
+ * This class runs the push-relabel algorithm on several threads at once.
+ *
+ * The work is done in rounds.  In each round the active vertices are split
+ * between the threads of a ForkJoinPool and discharged at the same time.
+ * Flows, excesses and labels are kept in atomic arrays, and a vertex is
+ * discharged with the lock-free rule of Hong: push to the lowest neighbour
+ * with residual capacity if it is below the vertex, otherwise relabel to one
+ * above it.  Only the owner of a vertex lowers the residual capacity of its
+ * arcs, so no locks are needed.  Between rounds the labels are recomputed
+ * with a ParallelBFS on the same pool when enough relabel work has been
+ * done since the last time.
+ *
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ParallelPushRelabel
+{
+    //Number of active vertices one task handles before splitting
+    private static final int GRAIN = 64;
+
+    private ForkJoinPool pool;
+    private int rounds;
+
+    private ResidualGraph r;
+    private int source;
+    private int sink;
+    private int[] offsets;
+    private int[] targets;
+    private int[] capacities;
+    private int[] reverse;
+    private AtomicIntegerArray flows;
+    private AtomicIntegerArray excess;
+    private AtomicIntegerArray height;
+    private AtomicIntegerArray queued;
+    private int[] next;
+    private AtomicInteger nextSize;
+    private LongAdder work;
+    private ParallelBFS bfs;
+
+    /*
+     * Constructor that runs the solver on a given pool.
+     * @param pool is the pool to run the rounds on
+     */
+    public ParallelPushRelabel(ForkJoinPool pool)
+    {
+        this.pool = pool;
+    }
+
+    /*
+     * Getter for the number of rounds the last run took.
+     * @return returns the number of rounds
+     */
+    public int getRounds()
+    {
+        return rounds;
+    }
+
+    /*
+     * Finds the maximum flow between two vertices.  The flow is written
+     * back into the residual graph when the run is over.
+     * @param g is the residual graph to find the max flow on
+     * @param s is the vertex the flow starts from
+     * @param t is the vertex the flow ends at
+     * @return the value of the maximum flow
+     */
+    public int maxFlow(ResidualGraph g, int s, int t)
+    {
+        r = g;
+        source = s;
+        sink = t;
+        offsets = g.getOffsets();
+        targets = g.getTargets();
+        capacities = g.getCapacities();
+        reverse = g.getReverse();
+        int n = g.order();
+        flows = new AtomicIntegerArray(g.getFlows());
+        excess = new AtomicIntegerArray(n);
+        height = new AtomicIntegerArray(n);
+        queued = new AtomicIntegerArray(n);
+        next = new int[n];
+        nextSize = new AtomicInteger();
+        work = new LongAdder();
+        bfs = new ParallelBFS(pool, g);
+        rounds = 0;
+
+        for (int a = offsets[source]; a < offsets[source + 1]; a++)
+        {
+            int d = residual(a);
+            if (d > 0)
+            {
+                flows.addAndGet(a, d);
+                flows.addAndGet(reverse[a], -d);
+                excess.addAndGet(source, -d);
+                excess.addAndGet(targets[a], d);
+            }
+        }
+        globalRelabel();
+        //Seeded vertices are marked queued like any other, so a push before their first discharge cannot list them twice
+        int[] active = new int[n];
+        int activeSize = 0;
+        for (int v = 0; v < n; v++)
+        {
+            if (excess.get(v) > 0 && v != source && v != sink)
+            {
+                queued.set(v, 1);
+                active[activeSize++] = v;
+            }
+        }
+        long workLimit = 6L * n + g.arcCount() / 2;
+        while (activeSize > 0)
+        {
+            nextSize.set(0);
+            pool.invoke(new Discharge(active, 0, activeSize));
+            rounds++;
+            int[] swap = active;
+            active = next;
+            next = swap;
+            activeSize = nextSize.get();
+            if (work.sum() > workLimit)
+            {
+                globalRelabel();
+                work.reset();
+            }
+        }
+
+        int[] out = g.getFlows();
+        for (int a = 0; a < out.length; a++)
+        {
+            out[a] = flows.get(a);
+        }
+        return excess.get(sink);
+    }
+
+    /*
+     * Returns how much more flow can be sent along an arc.
+     * @param a is the arc
+     * @return returns the residual capacity of the arc
+     */
+    private int residual(int a)
+    {
+        return capacities[a] - flows.get(a);
+    }
+
+    /*
+     * Discharges one vertex.  The vertex is only ever handled by one thread
+     * in a round, so only this thread lowers the residual capacity of its
+     * arcs or changes its label.
+     * @param u is the vertex to discharge
+     */
+    private void discharge(int u)
+    {
+        int n = r.order();
+        while (excess.get(u) > 0)
+        {
+            int lowest = Integer.MAX_VALUE;
+            int arc = -1;
+            for (int a = offsets[u]; a < offsets[u + 1]; a++)
+            {
+                if (residual(a) > 0)
+                {
+                    int h = height.get(targets[a]);
+                    if (h < lowest)
+                    {
+                        lowest = h;
+                        arc = a;
+                    }
+                }
+            }
+            if (arc == -1)
+            {
+                return;
+            }
+            if (height.get(u) > lowest)
+            {
+                int w = targets[arc];
+                int d = Math.min(excess.get(u), residual(arc));
+                flows.addAndGet(arc, d);
+                flows.addAndGet(reverse[arc], -d);
+                excess.addAndGet(u, -d);
+                excess.addAndGet(w, d);
+                activate(w);
+            }
+            else
+            {
+                height.set(u, Math.min(lowest + 1, 2 * n));
+                work.add(offsets[u + 1] - offsets[u] + 12);
+            }
+        }
+    }
+
+    /*
+     * Puts a vertex on the list for the next round if it is not already on it.
+     * @param w is the vertex that received flow
+     */
+    private void activate(int w)
+    {
+        if (w != source && w != sink && queued.compareAndSet(w, 0, 1))
+        {
+            next[nextSize.getAndIncrement()] = w;
+        }
+    }
+
+    /*
+     * Recomputes every label exactly with two parallel reverse breadth-first
+     * searches, one from the sink and one from the source, the same way
+     * Algorithms does it.  Only called between rounds.
+     */
+    private void globalRelabel()
+    {
+        int n = r.order();
+        bfs.clear();
+        bfs.setLevel(source, n);
+        bfs.setLevel(sink, 0);
+        bfs.search(sink, a -> residual(a) > 0, false, -1);
+        bfs.search(source, a -> residual(a) > 0, false, -1);
+        int[] levels = bfs.getLevels();
+        for (int v = 0; v < n; v++)
+        {
+            height.set(v, levels[v] == -1 ? 2 * n : levels[v]);
+        }
+    }
+
+    /*
+     * Task that discharges a range of the active vertices.
+     */
+    @SuppressWarnings("serial")
+    private class Discharge extends RecursiveAction
+    {
+        private int[] active;
+        private int lo;
+        private int hi;
+
+        Discharge(int[] active, int lo, int hi)
+        {
+            this.active = active;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute()
+        {
+            if (hi - lo > GRAIN)
+            {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Discharge(active, lo, mid), new Discharge(active, mid, hi));
+                return;
+            }
+            for (int i = lo; i < hi; i++)
+            {
+                int u = active[i];
+                queued.set(u, 0);
+                discharge(u);
+            }
+        }
+    }
+}
@@ -0,0 +1,468 @@
+/*
+ * ReducedGraph.java
+ * This class shrinks a graph before a max flow is found on it, and keeps
+ * track of which original vertex each vertex of the smaller graph is.
+ *
+ * Three reductions are applied over and over until none of them changes
+ * anything:
+ *   - Vertices that cannot be reached from the source, or cannot reach the
+ *     sink, are removed along with their edges, since no flow can pass
+ *     through them.
+ *   - Parallel edges between the same two vertices are merged into one
+ *     edge with their capacities added together.
+ *   - A vertex other than the source and sink with one edge in and one
+ *     edge out (or two edges, in an undirected graph) is removed and its
+ *     two edges are replaced by one edge with the smaller capacity.  An
+ *     undirected vertex with only one edge is removed too.
+ * None of these change the value of the max flow.  The reduced graph has
+ * the source as vertex 0 and the sink as the last vertex, so any of the
+ * algorithms can be run on it as it is.  Edge costs are not kept, so the
+ * reduced graph is only meant for max flows.
+ *
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+import java.util.Arrays;
+
+public class ReducedGraph
+{
+    private Graph graph;
+    private int[] original;
+    private int[] reduced;
+
+    //The edges being reduced; an edge is deleted by setting its capacity to -1
+    private int n;
+    private int m;
+    private boolean undirected;
+    private int[] eu;
+    private int[] ev;
+    private int[] ec;
+
+    /*
+     * Constructor that reduces a graph for a flow between two vertices.
+     * @param g is the graph to reduce
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     */
+    public ReducedGraph(Graph g, int source, int sink)
+    {
+        ResidualGraph r = g.getResidual();
+        n = r.order();
+        undirected = g instanceof UndirectedGraph;
+        int[] offsets = r.getOffsets();
+        int[] targets = r.getTargets();
+        int[] capacities = r.getCapacities();
+        int[] reverse = r.getReverse();
+        eu = new int[r.arcCount() / 2];
+        ev = new int[r.arcCount() / 2];
+        ec = new int[r.arcCount() / 2];
+        m = 0;
+        for (int u = 0; u < n; u++)
+        {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++)
+            {
+                if (capacities[a] > 0 && targets[a] != u && (!undirected || a < reverse[a]))
+                {
+                    eu[m] = u;
+                    ev[m] = targets[a];
+                    ec[m] = capacities[a];
+                    m++;
+                }
+            }
+        }
+
+        boolean[] alive = new boolean[n];
+        Arrays.fill(alive, true);
+        int before = -1;
+        while (m != before)
+        {
+            before = m;
+            prune(alive, source, sink);
+            mergeParallel();
+            contractChains(alive, source, sink);
+            compact();
+        }
+
+        //Number the vertices that are left with the source first and the sink last
+        reduced = new int[n];
+        Arrays.fill(reduced, -1);
+        int count = 0;
+        reduced[source] = count++;
+        for (int v = 0; v < n; v++)
+        {
+            if (alive[v] && v != source && v != sink)
+            {
+                reduced[v] = count++;
+            }
+        }
+        reduced[sink] = count++;
+        original = new int[count];
+        for (int v = 0; v < n; v++)
+        {
+            if (reduced[v] != -1)
+            {
+                original[reduced[v]] = v;
+            }
+        }
+        graph = undirected ? new UndirectedGraph(count) : new DirectedGraph(count);
+        for (int e = 0; e < m; e++)
+        {
+            graph.addEdge(reduced[eu[e]], reduced[ev[e]], ec[e]);
+        }
+        eu = null;
+        ev = null;
+        ec = null;
+    }
+
+    /*
+     * Getter for the reduced graph.
+     * @return returns the reduced graph
+     */
+    public Graph getGraph()
+    {
+        return graph;
+    }
+
+    /*
+     * Getter for the source in the reduced graph, which is always 0.
+     * @return returns the source
+     */
+    public int getSource()
+    {
+        return 0;
+    }
+
+    /*
+     * Getter for the sink in the reduced graph, which is always the last vertex.
+     * @return returns the sink
+     */
+    public int getSink()
+    {
+        return original.length - 1;
+    }
+
+    /*
+     * Finds the original vertex a vertex of the reduced graph stands for.
+     * @param v is the vertex in the reduced graph
+     * @return returns the vertex in the original graph
+     */
+    public int getOriginal(int v)
+    {
+        return original[v];
+    }
+
+    /*
+     * Finds the vertex of the reduced graph an original vertex became.
+     * @param v is the vertex in the original graph
+     * @return returns the vertex in the reduced graph, or -1 if it was removed
+     */
+    public int getReduced(int v)
+    {
+        return reduced[v];
+    }
+
+    /*
+     * Removes the vertices that cannot be on a path from the source to the
+     * sink, and every edge that touches one.
+     * @param alive holds whether each vertex is still in the graph
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     */
+    private void prune(boolean[] alive, int source, int sink)
+    {
+        boolean[] fromSource = search(source, true);
+        boolean[] toSink = search(sink, false);
+        for (int v = 0; v < n; v++)
+        {
+            if (!fromSource[v] || !toSink[v])
+            {
+                alive[v] = false;
+            }
+        }
+        alive[source] = true;
+        alive[sink] = true;
+        for (int e = 0; e < m; e++)
+        {
+            if (!fromSource[eu[e]] || !toSink[eu[e]] || !fromSource[ev[e]] || !toSink[ev[e]])
+            {
+                ec[e] = -1;
+            }
+        }
+    }
+
+    /*
+     * Finds the vertices that can be reached from a vertex.
+     * @param start is the vertex to search from
+     * @param forward is whether to follow edges forward or backward
+     * @return returns true for each vertex that can be reached
+     */
+    private boolean[] search(int start, boolean forward)
+    {
+        int[] offsets = new int[n + 1];
+        for (int e = 0; e < m; e++)
+        {
+            if (ec[e] >= 0)
+            {
+                offsets[(forward ? eu[e] : ev[e]) + 1]++;
+                if (undirected)
+                {
+                    offsets[(forward ? ev[e] : eu[e]) + 1]++;
+                }
+            }
+        }
+        for (int v = 0; v < n; v++)
+        {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] targets = new int[offsets[n]];
+        for (int e = 0; e < m; e++)
+        {
+            if (ec[e] >= 0)
+            {
+                int from = forward ? eu[e] : ev[e];
+                int to = forward ? ev[e] : eu[e];
+                targets[next[from]++] = to;
+                if (undirected)
+                {
+                    targets[next[to]++] = from;
+                }
+            }
+        }
+        boolean[] seen = new boolean[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        seen[start] = true;
+        queue[tail++] = start;
+        while (head < tail)
+        {
+            int u = queue[head++];
+            for (int i = offsets[u]; i < offsets[u + 1]; i++)
+            {
+                if (!seen[targets[i]])
+                {
+                    seen[targets[i]] = true;
+                    queue[tail++] = targets[i];
+                }
+            }
+        }
+        return seen;
+    }
+
+    /*
+     * Merges edges between the same two vertices into the first of them,
+     * adding up their capacities.  Capacities that would pass the largest
+     * int are held there, which no int flow can use up anyway.
+     */
+    private void mergeParallel()
+    {
+        //Bucket the edges by their first end, then find repeats of the second end
+        int[] start = new int[n + 1];
+        for (int e = 0; e < m; e++)
+        {
+            if (ec[e] >= 0)
+            {
+                start[first(e) + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++)
+        {
+            start[v + 1] += start[v];
+        }
+        int[] order = new int[start[n]];
+        int[] next = Arrays.copyOf(start, n);
+        for (int e = 0; e < m; e++)
+        {
+            if (ec[e] >= 0)
+            {
+                order[next[first(e)]++] = e;
+            }
+        }
+        int[] slot = new int[n];
+        Arrays.fill(slot, -1);
+        for (int u = 0; u < n; u++)
+        {
+            for (int i = start[u]; i < start[u + 1]; i++)
+            {
+                int e = order[i];
+                int v = second(e);
+                int kept = slot[v];
+                if (kept != -1 && first(kept) == u)
+                {
+                    ec[kept] = (int) Math.min(Integer.MAX_VALUE, (long) ec[kept] + ec[e]);
+                    ec[e] = -1;
+                }
+                else
+                {
+                    slot[v] = e;
+                }
+            }
+        }
+    }
+
+    /*
+     * Returns the end an edge is bucketed by when merging, which is its
+     * start, or its smaller end if the graph is undirected.
+     * @param e is the edge
+     * @return returns the first end of the edge
+     */
+    private int first(int e)
+    {
+        return undirected ? Math.min(eu[e], ev[e]) : eu[e];
+    }
+
+    /*
+     * Returns the other end of an edge from first(e).
+     * @param e is the edge
+     * @return returns the second end of the edge
+     */
+    private int second(int e)
+    {
+        return undirected ? Math.max(eu[e], ev[e]) : ev[e];
+    }
+
+    /*
+     * Removes every vertex in the middle of a chain.  A vertex qualifies if
+     * it is not the source or sink and has exactly one edge in and one
+     * out, or exactly two edges in an undirected graph.  Its first edge is
+     * stretched to reach past it and its second edge is deleted.  A chain
+     * that comes back to where it started carries no flow and is deleted,
+     * and so is the edge to an undirected vertex with only one edge.
+     * @param alive holds whether each vertex is still in the graph
+     * @param source is the vertex the flow starts from
+     * @param sink is the vertex the flow ends at
+     */
+    private void contractChains(boolean[] alive, int source, int sink)
+    {
+        int[] in = new int[n];
+        int[] out = new int[n];
+        int[] inEdge = new int[n];
+        int[] outEdge = new int[n];
+        for (int e = 0; e < m; e++)
+        {
+            if (ec[e] < 0)
+            {
+                continue;
+            }
+            if (undirected)
+            {
+                //An undirected vertex's first edge is its "in" edge and its second its "out" edge
+                attach(eu[e], e, in, out, inEdge, outEdge);
+                attach(ev[e], e, in, out, inEdge, outEdge);
+            }
+            else
+            {
+                in[ev[e]]++;
+                inEdge[ev[e]] = e;
+                out[eu[e]]++;
+                outEdge[eu[e]] = e;
+            }
+        }
+        for (int v = 0; v < n; v++)
+        {
+            if (v == source || v == sink)
+            {
+                continue;
+            }
+            if (undirected && in[v] == 1 && out[v] == 0)
+            {
+                //Flow that goes into a dead end has to come back out the same edge
+                ec[inEdge[v]] = -1;
+                alive[v] = false;
+                continue;
+            }
+            if (in[v] != 1 || out[v] != 1)
+            {
+                continue;
+            }
+            int e1 = inEdge[v];
+            int e2 = outEdge[v];
+            if (ec[e1] < 0 || ec[e2] < 0)
+            {
+                continue;
+            }
+            int u = other(e1, v);
+            int w = other(e2, v);
+            alive[v] = false;
+            if (u == w)
+            {
+                ec[e1] = -1;
+                ec[e2] = -1;
+                continue;
+            }
+            if (eu[e1] == v)
+            {
+                eu[e1] = w;
+            }
+            else
+            {
+                ev[e1] = w;
+            }
+            ec[e1] = Math.min(ec[e1], ec[e2]);
+            ec[e2] = -1;
+            if (inEdge[w] == e2)
+            {
+                inEdge[w] = e1;
+            }
+            if (outEdge[w] == e2)
+            {
+                outEdge[w] = e1;
+            }
+        }
+    }
+
+    /*
+     * Records an edge at one end of an undirected edge for contractChains.
+     * @param v is the end of the edge
+     * @param e is the edge
+     * @param in holds how many first edges each vertex has
+     * @param out holds how many second edges each vertex has
+     * @param inEdge holds the first edge of each vertex
+     * @param outEdge holds the second edge of each vertex
+     */
+    private void attach(int v, int e, int[] in, int[] out, int[] inEdge, int[] outEdge)
+    {
+        if (in[v] == 0)
+        {
+            in[v] = 1;
+            inEdge[v] = e;
+        }
+        else
+        {
+            out[v]++;
+            outEdge[v] = e;
+        }
+    }
+
+    /*
+     * Returns the end of an edge that is not v.
+     * @param e is the edge
+     * @param v is one end of the edge
+     * @return returns the other end
+     */
+    private int other(int e, int v)
+    {
+        return eu[e] == v ? ev[e] : eu[e];
+    }
+
+    /*
+     * Moves the edges that have not been deleted to the front.
+     */
+    private void compact()
+    {
+        int kept = 0;
+        for (int e = 0; e < m; e++)
+        {
+            if (ec[e] >= 0)
+            {
+                eu[kept] = eu[e];
+                ev[kept] = ev[e];
+                ec[kept] = ec[e];
+                kept++;
+            }
+        }
+        m = kept;
+    }
+}
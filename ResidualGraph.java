@@ -0,0 +1,522 @@
+/*
+ * ResidualGraph.java
+ * This class is a residual graph stored in compressed sparse row (CSR) form.
+ *
+ * Every edge of a graph becomes two arcs: a forward arc that holds the
+ * capacity of the edge and a backward arc that lets flow be sent back.
+ * The arcs leaving vertex v are stored in positions offsets[v] through
+ * offsets[v + 1] - 1 of the targets, capacities and flows arrays, so the
+ * memory used is O(V + E) instead of a V x V matrix.
+ *
+ * The residual capacity of an arc is its capacity minus its flow.  Flow is
+ * kept skew-symmetric: sending flow along an arc takes the same amount
+ * off the flow of its mate.  Each arc stores the index of its mate, so
+ * sending flow only changes two slots and arcs are never added or removed
+ * while an algorithm runs.
+ *
+ * Each arc can also have a cost for each unit of flow.  The backward arc
+ * gets the negative of the forward cost, so sending flow back refunds it.
+ *
+ * The arcs are put into rows with a counting sort by the vertex they
+ * leave.  A large graph is sorted in blocks of edges on every thread of
+ * the common pool, and the rows come out the same as on one thread.
+ *
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ResidualGraph
+{
+    //Fewest edges worth sorting into rows on a thread of their own
+    private static final int MIN_BLOCK = 1 << 16;
+    //The steps of the counting sort that puts the arcs into rows
+    private static final int COUNT = 0;
+    private static final int TOTAL = 1;
+    private static final int PLACE = 2;
+    private static final int SCATTER = 3;
+
+    private int vertices;
+    private int[] offsets;
+    private int[] targets;
+    private int[] capacities;
+    private int[] flows;
+    private int[] reverse;
+    private int[] edgeIds;
+    private int[] costs;
+
+    /*
+     * Builds the residual graph from a list of edges.
+     * @param n is the number of vertices
+     * @param m is the number of edges in the arrays
+     * @param starts holds the starting vertex of each edge
+     * @param ends holds the ending vertex of each edge
+     * @param caps holds the capacity of each edge
+     * @param undirected is whether the backward arcs get the capacity too
+     */
+    public ResidualGraph(int n, int m, int[] starts, int[] ends, int[] caps, boolean undirected)
+    {
+        this(n, m, starts, ends, caps, null, undirected);
+    }
+
+    /*
+     * Builds the residual graph from a list of edges with costs.
+     * @param n is the number of vertices
+     * @param m is the number of edges in the arrays
+     * @param starts holds the starting vertex of each edge
+     * @param ends holds the ending vertex of each edge
+     * @param caps holds the capacity of each edge
+     * @param edgeCosts holds the cost of each edge, or null for no costs
+     * @param undirected is whether the backward arcs get the capacity too
+     */
+    public ResidualGraph(int n, int m, int[] starts, int[] ends, int[] caps, int[] edgeCosts, boolean undirected)
+    {
+        vertices = n;
+        offsets = new int[n + 1];
+        targets = new int[2 * m];
+        capacities = new int[2 * m];
+        flows = new int[2 * m];
+        reverse = new int[2 * m];
+        edgeIds = new int[2 * m];
+        costs = new int[2 * m];
+
+        //Each block keeps a count for every vertex, so there are never more counts than arcs
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        long most = Math.min(pool.getParallelism(), Math.min(m / MIN_BLOCK, 2L * m / (n + 1)));
+        int[][] counts = new int[(int) Math.max(1, most)][];
+        Sort sort = new Sort(starts, ends, caps, edgeCosts, undirected, m, counts, COUNT, 0, counts.length);
+        run(pool, sort);
+        run(pool, sort.next(TOTAL));
+        for (int v = 0; v < n; v++)
+        {
+            offsets[v + 1] += offsets[v];
+        }
+        run(pool, sort.next(PLACE));
+        run(pool, sort.next(SCATTER));
+    }
+
+    /*
+     * Builds a residual graph with no flow from arc arrays that are already
+     * in CSR form, such as the ones a binary graph file holds.  The arrays
+     * are kept, not copied.
+     * @param n is the number of vertices
+     * @param offsets holds where the arcs of each vertex start
+     * @param targets holds the vertex each arc points to
+     * @param capacities holds the capacity of each arc
+     * @param reverse holds the mate of each arc
+     * @param edgeIds holds the edge each arc was built from
+     * @param costs holds the cost of each arc
+     */
+    public ResidualGraph(int n, int[] offsets, int[] targets, int[] capacities, int[] reverse, int[] edgeIds, int[] costs)
+    {
+        vertices = n;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.capacities = capacities;
+        this.reverse = reverse;
+        this.edgeIds = edgeIds;
+        this.costs = costs;
+        flows = new int[targets.length];
+    }
+
+    /*
+     * Builds a copy of a residual graph with no flow.  The arcs are shared
+     * with the original and only the flows are new, so several copies can
+     * have flow found on them at the same time.
+     * @param other is the residual graph to copy
+     */
+    public ResidualGraph(ResidualGraph other)
+    {
+        vertices = other.vertices;
+        offsets = other.offsets;
+        targets = other.targets;
+        capacities = other.capacities;
+        reverse = other.reverse;
+        edgeIds = other.edgeIds;
+        costs = other.costs;
+        flows = new int[targets.length];
+    }
+
+    /*
+     * Returns the number of vertices in the graph.
+     * @return returns the number of vertices
+     */
+    public int order()
+    {
+        return vertices;
+    }
+
+    /*
+     * Returns the number of arcs, which is twice the number of edges.
+     * @return returns the number of arcs
+     */
+    public int arcCount()
+    {
+        return targets.length;
+    }
+
+    /*
+     * Getter for the row offsets.  The arcs of vertex v are in
+     * offsets[v] to offsets[v + 1] - 1.
+     * @return returns the offsets array
+     */
+    public int[] getOffsets()
+    {
+        return offsets;
+    }
+
+    /*
+     * Getter for the arc targets.
+     * @return returns the vertex each arc points to
+     */
+    public int[] getTargets()
+    {
+        return targets;
+    }
+
+    /*
+     * Getter for the arc capacities.  Backward arcs of directed edges have
+     * a capacity of 0.
+     * @return returns the capacity of each arc
+     */
+    public int[] getCapacities()
+    {
+        return capacities;
+    }
+
+    /*
+     * Getter for the arc flows.
+     * @return returns the flow on each arc
+     */
+    public int[] getFlows()
+    {
+        return flows;
+    }
+
+    /*
+     * Getter for the mate of each arc.
+     * @return returns the index of the arc going the opposite way
+     */
+    public int[] getReverse()
+    {
+        return reverse;
+    }
+
+    /*
+     * Getter for the edge each arc was built from.
+     * @return returns the index of the edge for each arc
+     */
+    public int[] getEdgeIds()
+    {
+        return edgeIds;
+    }
+
+    /*
+     * Getter for the arc costs.
+     * @return returns the cost of one unit of flow on each arc
+     */
+    public int[] getCosts()
+    {
+        return costs;
+    }
+
+    /*
+     * Writes out the edges the arcs were built from, so that building a
+     * residual graph from them gives these arcs again.  Each edge starts
+     * where the arc of its pair with the larger capacity leaves from, which
+     * for a directed edge is its forward arc.  When the capacities tie the
+     * two arcs are the same but for direction, and the first one is used.
+     * @param starts gets the starting vertex of each edge
+     * @param ends gets the ending vertex of each edge
+     * @param caps gets the capacity of each edge
+     * @param edgeCosts gets the cost of each edge
+     */
+    public void fillEdges(int[] starts, int[] ends, int[] caps, int[] edgeCosts)
+    {
+        for (int v = 0; v < vertices; v++)
+        {
+            for (int a = offsets[v]; a < offsets[v + 1]; a++)
+            {
+                int b = reverse[a];
+                if (a > b)
+                {
+                    continue;
+                }
+                int e = edgeIds[a];
+                boolean forward = capacities[a] >= capacities[b];
+                int f = forward ? a : b;
+                starts[e] = forward ? v : targets[a];
+                ends[e] = targets[f];
+                caps[e] = capacities[f];
+                edgeCosts[e] = costs[f];
+            }
+        }
+    }
+
+    /*
+     * Returns how much more flow can be sent along an arc.
+     * @param a is the arc
+     * @return returns the residual capacity of the arc
+     */
+    public int residual(int a)
+    {
+        return capacities[a] - flows[a];
+    }
+
+    /*
+     * Finds the arc that goes the opposite way to arc a for the same edge.
+     * @param a is the arc
+     * @return returns the mate of the arc
+     */
+    public int mate(int a)
+    {
+        return reverse[a];
+    }
+
+    /*
+     * Sends flow along an arc and takes it off the arc's mate.
+     * @param a is the arc
+     * @param amount is the amount of flow to send
+     */
+    public void push(int a, int amount)
+    {
+        flows[a] += amount;
+        flows[reverse[a]] -= amount;
+    }
+
+    /*
+     * Returns the total residual capacity from vertex i to vertex j.
+     * @param i is the first vertex
+     * @param j is the second vertex
+     * @return returns the residual capacity between them
+     */
+    public int residualBetween(int i, int j)
+    {
+        int total = 0;
+        for (int a = offsets[i]; a < offsets[i + 1]; a++)
+        {
+            if (targets[a] == j)
+            {
+                total += residual(a);
+            }
+        }
+        return total;
+    }
+
+    /*
+     * Removes all flow from the graph.
+     */
+    public void reset()
+    {
+        Arrays.fill(flows, 0);
+    }
+
+    /*
+     * Prints the edges and their capacity.
+     */
+    public void printGraph()
+    {
+        System.out.println("Edges and their capacity: ");
+        for (int i = 0; i < vertices; i++)
+        {
+            for (int a = offsets[i]; a < offsets[i + 1]; a++)
+            {
+                if (capacities[a] > 0)
+                {
+                    System.out.println("(" + i + ", " + targets[a] + "): " + capacities[a]);
+                }
+            }
+        }
+    }
+
+    /*
+     * Prints the residual capacities as a matrix.  Only one row is held
+     * in memory at a time.
+     */
+    public void printMatrix()
+    {
+        int[] row = new int[vertices];
+        for (int i = 0; i < vertices; i++)
+        {
+            Arrays.fill(row, 0);
+            for (int a = offsets[i]; a < offsets[i + 1]; a++)
+            {
+                row[targets[a]] += residual(a);
+            }
+            for (int j = 0; j < vertices; j++)
+            {
+                System.out.print(row[j] + " ");
+            }
+            System.out.println();
+        }
+    }
+
+    /*
+     * Prints the arcs that carry flow and their capacity.
+     */
+    public void printTaken()
+    {
+        System.out.println("Taken edges and their capacity: ");
+        for (int i = 0; i < vertices; i++)
+        {
+            for (int a = offsets[i]; a < offsets[i + 1]; a++)
+            {
+                if (flows[a] > 0 && capacities[a] != 0)
+                {
+                    System.out.println("(" + i + ", " + targets[a] + "): " + flows[a] + "/" + capacities[a]);
+                }
+            }
+        }
+    }
+
+    /*
+     * Runs a step of the counting sort, on the pool if it has more than one
+     * block.
+     * @param pool is the pool to run on
+     * @param sort is the step
+     */
+    private static void run(ForkJoinPool pool, Sort sort)
+    {
+        if (sort.hi - sort.lo > 1)
+        {
+            pool.invoke(sort);
+        }
+        else
+        {
+            sort.invoke();
+        }
+    }
+
+    /*
+     * Task that does one step of the counting sort that puts the arcs into
+     * rows by the vertex they leave from.  The edges are split into blocks
+     * and the vertices into as many slices.
+     *   COUNT:   each block counts the arcs it has at each vertex.
+     *   TOTAL:   each slice adds up the blocks' counts into its degrees,
+     *            which are then summed into the offsets.
+     *   PLACE:   each slice turns the counts into where each block's arcs
+     *            at each vertex start, blocks in edge order.
+     *   SCATTER: each block puts its arcs in place.
+     * Every arc lands where the sort on one thread would put it, so the
+     * rows are in edge order however many blocks there are.
+     */
+    @SuppressWarnings("serial")
+    private class Sort extends RecursiveAction
+    {
+        private int[] starts;
+        private int[] ends;
+        private int[] caps;
+        private int[] edgeCosts;
+        private boolean undirected;
+        private int m;
+        private int[][] counts;
+        private int step;
+        private int lo;
+        private int hi;
+
+        Sort(int[] starts, int[] ends, int[] caps, int[] edgeCosts, boolean undirected, int m, int[][] counts,
+                int step, int lo, int hi)
+        {
+            this.starts = starts;
+            this.ends = ends;
+            this.caps = caps;
+            this.edgeCosts = edgeCosts;
+            this.undirected = undirected;
+            this.m = m;
+            this.counts = counts;
+            this.step = step;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        /*
+         * Makes the task for another step over every block.
+         * @param next is the step
+         * @return returns the task
+         */
+        Sort next(int next)
+        {
+            return new Sort(starts, ends, caps, edgeCosts, undirected, m, counts, next, 0, counts.length);
+        }
+
+        protected void compute()
+        {
+            if (hi - lo > 1)
+            {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Sort(starts, ends, caps, edgeCosts, undirected, m, counts, step, lo, mid),
+                        new Sort(starts, ends, caps, edgeCosts, undirected, m, counts, step, mid, hi));
+                return;
+            }
+            if (lo == hi)
+            {
+                return;
+            }
+            int blocks = counts.length;
+            int first = (int) ((long) m * lo / blocks);
+            int last = (int) ((long) m * (lo + 1) / blocks);
+            int from = (int) ((long) vertices * lo / blocks);
+            int to = (int) ((long) vertices * (lo + 1) / blocks);
+            if (step == COUNT)
+            {
+                int[] count = new int[vertices];
+                for (int e = first; e < last; e++)
+                {
+                    count[starts[e]]++;
+                    count[ends[e]]++;
+                }
+                counts[lo] = count;
+            }
+            else if (step == TOTAL)
+            {
+                for (int v = from; v < to; v++)
+                {
+                    int degree = 0;
+                    for (int b = 0; b < blocks; b++)
+                    {
+                        degree += counts[b][v];
+                    }
+                    offsets[v + 1] = degree;
+                }
+            }
+            else if (step == PLACE)
+            {
+                for (int v = from; v < to; v++)
+                {
+                    int position = offsets[v];
+                    for (int b = 0; b < blocks; b++)
+                    {
+                        int count = counts[b][v];
+                        counts[b][v] = position;
+                        position += count;
+                    }
+                }
+            }
+            else
+            {
+                int[] next = counts[lo];
+                for (int e = first; e < last; e++)
+                {
+                    int forward = next[starts[e]]++;
+                    int backward = next[ends[e]]++;
+                    targets[forward] = ends[e];
+                    capacities[forward] = caps[e];
+                    edgeIds[forward] = e;
+                    targets[backward] = starts[e];
+                    capacities[backward] = undirected ? caps[e] : 0;
+                    edgeIds[backward] = e;
+                    reverse[forward] = backward;
+                    reverse[backward] = forward;
+                    if (edgeCosts != null)
+                    {
+                        costs[forward] = edgeCosts[e];
+                        costs[backward] = -edgeCosts[e];
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * UnionFind.java
+ * This class keeps track of which vertices have been merged together.
+ * Finding a vertex's group halves the path to the root as it goes, and
+ * the smaller group is always hung under the larger one, so each operation
+ * takes nearly constant time.
+ * @author Chris Smith
+ * @version 10.18.2026
+ */
+
+public class UnionFind
+{
+    private int[] parent;
+    private int[] size;
+    private int groups;
+
+    /*
+     * Constructor that puts every vertex in a group of its own.
+     * @param n is the number of vertices
+     */
+    public UnionFind(int n)
+    {
+        parent = new int[n];
+        size = new int[n];
+        for (int i = 0; i < n; i++)
+        {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        groups = n;
+    }
+
+    /*
+     * Finds the group a vertex is in.
+     * @param v is the vertex
+     * @return returns the root of the vertex's group
+     */
+    public int find(int v)
+    {
+        while (parent[v] != v)
+        {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /*
+     * Merges the groups of two vertices.
+     * @param u is the first vertex
+     * @param v is the second vertex
+     * @return returns false if they were already in the same group
+     */
+    public boolean union(int u, int v)
+    {
+        int a = find(u);
+        int b = find(v);
+        if (a == b)
+        {
+            return false;
+        }
+        if (size[a] < size[b])
+        {
+            int temp = a;
+            a = b;
+            b = temp;
+        }
+        parent[b] = a;
+        size[a] += size[b];
+        groups--;
+        return true;
+    }
+
+    /*
+     * Returns the number of groups left.
+     * @return returns the number of groups
+     */
+    public int groups()
+    {
+        return groups;
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Visualizer.java
- * This class visualizes a graph, and four algorithms that find the maximum flow.
+ * This class visualizes a graph, and the algorithms that find the maximum flow.
  * @author: Chris Smith
  * @version: 8.24.2015
  *
@@ -8,30 +8,29 @@
 
 import java.util.Scanner;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 public class Visualizer
 {
     boolean timing_mode = false;
     /*
-     * Runs the Ford-Fulkerson algorithm on a graph g with filename s.
+     * Runs the Ford-Fulkerson algorithm on a graph g.
      * @param a is the Algorithms class with the algorithm in it
      * @param g is the graph to run the algorithm on
-     * @param s is the name of the file that contains edge information for the class
-     * @throws FileNotFoundException if the file cannot be found/loaded
+     * @param scaling is whether to use capacity scaling
      */
-    public void runFF(Algorithms a, Graph g, String s) throws FileNotFoundException
+    public void runFF(Algorithms a, Graph g, boolean scaling)
     {
-        g = g.reader(s);
         if(g.size() != 0)
         {
             if(timing_mode)
             {
                 long st_time = System.currentTimeMillis();
-                a.fordFulkerson(g, timing_mode);
+                a.fordFulkerson(g, timing_mode, scaling);
                 System.out.println("Time: " + (System.currentTimeMillis() - st_time) + " ms.");
             }
             else
             {
-                a.fordFulkerson(g, timing_mode);
+                a.fordFulkerson(g, timing_mode, scaling);
             }
         }
         else
@@ -41,15 +40,12 @@ public class Visualizer
     }
 
     /*
-     * Runs the Edmonds-Karp algorithm on a graph g with filename s.
+     * Runs the Edmonds-Karp algorithm on a graph g.
      * @param a is the Algorithms class with the algorithm in it
      * @param g is the graph to run the algorithm on
-     * @param s is the name of the file that contains edge information for the class
-     * @throws FileNotFoundException if the file cannot be found/loaded
      */
-    public void runEK(Algorithms a, Graph g, String s) throws FileNotFoundException
+    public void runEK(Algorithms a, Graph g)
     {
-        g = g.reader(s);
         if(g.size() != 0)
         {
             if(timing_mode)
@@ -70,15 +66,12 @@ public class Visualizer
     }
 
     /*
-     * Runs Dinic's algorithm on a graph g with filename s.
+     * Runs Dinic's algorithm on a graph g.
      * @param a is the Algorithms class with the algorithm in it
      * @param g is the graph to run the algorithm on
-     * @param s is the name of the file that contains edge information for the class
-     * @throws FileNotFoundException if the file cannot be found/loaded
      */
-    public void runD(Algorithms a, Graph g, String s) throws FileNotFoundException
+    public void runD(Algorithms a, Graph g)
     {
-        g = g.reader(s);
         if(g.size() != 0)
         {
             if(timing_mode)
@@ -99,26 +92,54 @@ public class Visualizer
     }
 
     /*
-     * Runs Karger's Min-Cut algorithm on a graph g with filename s.
+     * Runs Karger's Min-Cut algorithm on a graph g.
      * @param a is the Algorithms class with the algorithm in it
      * @param g is the graph to run the algorithm on
-     * @param s is the name of the file that contains edge information for the class
-     * @throws FileNotFoundException if the file cannot be found/loaded
+     * @param probability is the success probability for Karger-Stein, or 0 for one contraction
+     */
+    public void runK(Algorithms a, Graph g, double probability)
+    {
+        if(g.size() != 0)
+        {
+            long st_time = System.currentTimeMillis();
+            if(probability > 0)
+            {
+                a.kargerStein(g, timing_mode, probability, Runtime.getRuntime().availableProcessors());
+            }
+            else
+            {
+                a.kargerMinCut(g, timing_mode);
+            }
+            if(timing_mode)
+            {
+                System.out.println("Time: " + (System.currentTimeMillis() - st_time) + " ms.");
+            }
+        }
+        else
+        {
+            System.out.println("Empty graph. Load valid graph first.");
+        }
+    }
+
+    /*
+     * Runs the push-relabel algorithm on a graph g.
+     * @param a is the Algorithms class with the algorithm in it
+     * @param g is the graph to run the algorithm on
+     * @param highestLabel is whether to use highest-label selection instead of FIFO
      */
-    public void runK(Algorithms a, Graph g, String s) throws FileNotFoundException
+    public void runPR(Algorithms a, Graph g, boolean highestLabel)
     {
-        g = g.reader(s);
         if(g.size() != 0)
         {
             if(timing_mode)
             {
                 long st_time = System.currentTimeMillis();
-                a.kargerMinCut(g, timing_mode);
+                a.pushRelabel(g, timing_mode, highestLabel);
                 System.out.println("Time: " + (System.currentTimeMillis() - st_time) + " ms.");
             }
             else
             {
-                a.kargerMinCut(g, timing_mode);
+                a.pushRelabel(g, timing_mode, highestLabel);
             }
         }
         else
@@ -128,14 +149,378 @@ public class Visualizer
     }
 
     /*
-     * Loads the graph from a file.
+     * Runs the parallel push-relabel algorithm on a graph g.
+     * @param a is the Algorithms class with the algorithm in it
+     * @param g is the graph to run the algorithm on
+     * @param threads is the number of threads to use
+     */
+    public void runPPR(Algorithms a, Graph g, int threads)
+    {
+        if(g.size() != 0)
+        {
+            if(timing_mode)
+            {
+                long st_time = System.currentTimeMillis();
+                a.parallelPushRelabel(g, timing_mode, threads);
+                System.out.println("Time: " + (System.currentTimeMillis() - st_time) + " ms.");
+            }
+            else
+            {
+                a.parallelPushRelabel(g, timing_mode, threads);
+            }
+        }
+        else
+        {
+            System.out.println("Empty graph. Load valid graph first.");
+        }
+    }
+
+    /*
+     * Runs the Boykov-Kolmogorov algorithm on a graph g.
+     * @param a is the Algorithms class with the algorithm in it
+     * @param g is the graph to run the algorithm on
+     */
+    public void runBK(Algorithms a, Graph g)
+    {
+        if(g.size() != 0)
+        {
+            if(timing_mode)
+            {
+                long st_time = System.currentTimeMillis();
+                a.boykovKolmogorov(g, timing_mode);
+                System.out.println("Time: " + (System.currentTimeMillis() - st_time) + " ms.");
+            }
+            else
+            {
+                a.boykovKolmogorov(g, timing_mode);
+            }
+        }
+        else
+        {
+            System.out.println("Empty graph. Load valid graph first.");
+        }
+    }
+
+    /*
+     * Runs unit-capacity Dinic's algorithm on a graph g.
+     * @param a is the Algorithms class with the algorithm in it
      * @param g is the graph to run the algorithm on
+     */
+    public void runUD(Algorithms a, Graph g)
+    {
+        if(g.size() != 0)
+        {
+            if(timing_mode)
+            {
+                long st_time = System.currentTimeMillis();
+                a.unitDinic(g, timing_mode);
+                System.out.println("Time: " + (System.currentTimeMillis() - st_time) + " ms.");
+            }
+            else
+            {
+                a.unitDinic(g, timing_mode);
+            }
+        }
+        else
+        {
+            System.out.println("Empty graph. Load valid graph first.");
+        }
+    }
+
+    /*
+     * Runs the Hopcroft-Karp algorithm on a graph g.
+     * @param a is the Algorithms class with the algorithm in it
+     * @param g is the graph to run the algorithm on
+     */
+    public void runHK(Algorithms a, Graph g)
+    {
+        if(g.size() != 0)
+        {
+            if(timing_mode)
+            {
+                long st_time = System.currentTimeMillis();
+                a.hopcroftKarp(g, timing_mode);
+                System.out.println("Time: " + (System.currentTimeMillis() - st_time) + " ms.");
+            }
+            else
+            {
+                a.hopcroftKarp(g, timing_mode);
+            }
+        }
+        else
+        {
+            System.out.println("Empty graph. Load valid graph first.");
+        }
+    }
+
+    /*
+     * Runs the Stoer-Wagner min cut algorithm on a graph g.
+     * @param a is the Algorithms class with the algorithm in it
+     * @param g is the graph to run the algorithm on
+     */
+    public void runSW(Algorithms a, Graph g)
+    {
+        if(g.size() != 0)
+        {
+            if(timing_mode)
+            {
+                long st_time = System.currentTimeMillis();
+                a.stoerWagner(g, timing_mode);
+                System.out.println("Time: " + (System.currentTimeMillis() - st_time) + " ms.");
+            }
+            else
+            {
+                a.stoerWagner(g, timing_mode);
+            }
+        }
+        else
+        {
+            System.out.println("Empty graph. Load valid graph first.");
+        }
+    }
+
+    /*
+     * Runs the min-cost max-flow algorithm on a graph g.
+     * @param a is the Algorithms class with the algorithm in it
+     * @param g is the graph to run the algorithm on
+     */
+    public void runMC(Algorithms a, Graph g)
+    {
+        if(g.size() != 0)
+        {
+            if(timing_mode)
+            {
+                long st_time = System.currentTimeMillis();
+                a.minCostMaxFlow(g, timing_mode);
+                System.out.println("Time: " + (System.currentTimeMillis() - st_time) + " ms.");
+            }
+            else
+            {
+                a.minCostMaxFlow(g, timing_mode);
+            }
+        }
+        else
+        {
+            System.out.println("Empty graph. Load valid graph first.");
+        }
+    }
+
+    /*
+     * Builds a Gomory-Hu tree of a graph g and then answers
+     * min cut queries from it until -1 is typed.
+     * @param a is the Algorithms class with the algorithm in it
+     * @param g is the graph to run the algorithm on
+     * @param threads is the number of threads to use
+     * @param scan is the scanner to read the queries from
+     */
+    public void runGH(Algorithms a, Graph g, int threads, Scanner scan)
+    {
+        if(g.size() == 0)
+        {
+            System.out.println("Empty graph. Load valid graph first.");
+            return;
+        }
+        long st_time = System.currentTimeMillis();
+        GomoryHuTree tree = a.gomoryHu(g, timing_mode, threads);
+        if(timing_mode)
+        {
+            System.out.println("Time: " + (System.currentTimeMillis() - st_time) + " ms.");
+        }
+        if(tree == null)
+        {
+            return;
+        }
+        while(true)
+        {
+            System.out.println("Type two vertices to find the min cut between (-1 to stop):");
+            int u;
+            int v;
+            try
+            {
+                u = Integer.parseInt(scan.next());
+                if(u == -1)
+                {
+                    return;
+                }
+                v = Integer.parseInt(scan.next());
+            }
+            catch(NumberFormatException e)
+            {
+                System.out.println("INVALID. Please type two vertex numbers.");
+                continue;
+            }
+            if(u < 0 || v < 0 || u >= tree.order() || v >= tree.order())
+            {
+                System.out.println("INVALID. Vertices go from 0 to " + (tree.order() - 1) + ".");
+                continue;
+            }
+            System.out.println("Min Cut between " + u + " and " + v + ": " + tree.minCut(u, v));
+        }
+    }
+
+    /*
+     * Answers max flow queries between pairs of vertices on a graph g until
+     * -1 is typed.  The queries share one workspace, so the graph is never
+     * read again and nothing is allocated for each query.
+     * @param a is the Algorithms class with the algorithm in it
+     * @param g is the graph to run the algorithm on
+     * @param scan is the scanner to read the queries from
+     */
+    public void runQ(Algorithms a, Graph g, Scanner scan)
+    {
+        if(g.size() == 0)
+        {
+            System.out.println("Empty graph. Load valid graph first.");
+            return;
+        }
+        FlowWorkspace w = new FlowWorkspace(g.getResidual());
+        long total = 0;
+        int queries = 0;
+        while(true)
+        {
+            System.out.println("Type a source and sink to find the max flow between (-1 to stop):");
+            int u;
+            int v;
+            try
+            {
+                u = Integer.parseInt(scan.next());
+                if(u == -1)
+                {
+                    break;
+                }
+                v = Integer.parseInt(scan.next());
+            }
+            catch(NumberFormatException e)
+            {
+                System.out.println("INVALID. Please type two vertex numbers.");
+                continue;
+            }
+            if(u < 0 || v < 0 || u >= g.order() || v >= g.order() || u == v)
+            {
+                System.out.println("INVALID. Please type two different vertices from 0 to " + (g.order() - 1) + ".");
+                continue;
+            }
+            long st_time = System.nanoTime();
+            int flow = a.maxFlow(w, u, v);
+            total += System.nanoTime() - st_time;
+            queries++;
+            System.out.println("Max Flow from " + u + " to " + v + ": " + flow);
+        }
+        if(timing_mode && queries > 0)
+        {
+            System.out.println("Time: " + total / 1000000 + " ms for " + queries + " queries.");
+        }
+    }
+
+    /*
+     * Runs whichever max flow algorithm should be fastest on a graph g.
+     * @param a is the Algorithms class with the algorithm in it
+     * @param g is the graph to run the algorithm on
+     * @param stats is the statistics of the graph, found when it was loaded
+     */
+    public void runA(Algorithms a, Graph g, GraphStats stats)
+    {
+        if(g.size() != 0)
+        {
+            long st_time = System.currentTimeMillis();
+            a.auto(g, timing_mode, stats, Runtime.getRuntime().availableProcessors());
+            if(timing_mode)
+            {
+                System.out.println("Time: " + (System.currentTimeMillis() - st_time) + " ms.");
+            }
+        }
+        else
+        {
+            System.out.println("Empty graph. Load valid graph first.");
+        }
+    }
+
+    /*
+     * Reduces a graph g before a max flow is found on it.  The reduced graph
+     * takes the place of g, with the source and sink still the first and
+     * last vertices.
+     * @param a is the Algorithms class with the algorithm in it
+     * @param g is the graph to reduce
+     * @return returns the reduced graph, or g if it could not be reduced
+     */
+    public Graph runR(Algorithms a, Graph g)
+    {
+        if(g.size() == 0)
+        {
+            System.out.println("Empty graph. Load valid graph first.");
+            return g;
+        }
+        long st_time = System.currentTimeMillis();
+        ReducedGraph reduced = a.reduce(g, timing_mode);
+        if(timing_mode)
+        {
+            System.out.println("Time: " + (System.currentTimeMillis() - st_time) + " ms.");
+        }
+        return reduced == null ? g : reduced.getGraph();
+    }
+
+    /*
+     * Loads the graph from a file.  The graph is kept and used by every
+     * algorithm until another one is loaded.  A binary graph file is
+     * loaded as the type of graph saved in it.
+     * @param g is a graph of the type to load
      * @param s is the name of the file that contains edge information for the class
+     * @return returns the graph that was read
      * @throws FileNotFoundException if the file cannot be found/loaded
      */
-    public void load(Graph g, String s) throws FileNotFoundException
+    public Graph load(Graph g, String s) throws FileNotFoundException
     {
-        g = g.reader(s);
+        try
+        {
+            if(BinaryGraph.isBinary(s))
+            {
+                return BinaryGraph.read(s);
+            }
+        }
+        catch(FileNotFoundException e)
+        {
+            System.out.println("File not found. Try another file.");
+            return g;
+        }
+        catch(IOException e)
+        {
+            System.out.println("Could not read the file: " + e.getMessage());
+            return g;
+        }
+        return g.reader(s);
+    }
+
+    /*
+     * Saves a graph g as a binary graph file, which loads much faster than
+     * the text it was read from.
+     * @param g is the graph to save
+     * @param scan is the scanner to read the file name from
+     */
+    public void runS(Graph g, Scanner scan)
+    {
+        if(g.size() != 0)
+        {
+            System.out.println("Type the name of the file to save to:");
+            String s = scan.next();
+            long st_time = System.currentTimeMillis();
+            try
+            {
+                BinaryGraph.write(g, s);
+                System.out.println("Saved to " + s + ".");
+            }
+            catch(IOException e)
+            {
+                System.out.println("Could not write the file: " + e.getMessage());
+            }
+            if(timing_mode)
+            {
+                System.out.println("Time: " + (System.currentTimeMillis() - st_time) + " ms.");
+            }
+        }
+        else
+        {
+            System.out.println("Empty graph. Load valid graph first.");
+        }
     }
 
     /*
@@ -146,6 +531,7 @@ public class Visualizer
     {
         //Have a graph and an Algorithms object for later use
         Graph g = new DirectedGraph();
+        GraphStats stats = null;
         Algorithms a = new Algorithms();
         boolean ended = false;
         Scanner scan = new Scanner(System.in);
@@ -161,6 +547,18 @@ public class Visualizer
             System.out.println("|  5.        Dinic's            |");
             System.out.println("|  6.      Timing Mode          |");
             System.out.println("|  7.         Quit              |");
+            System.out.println("|  8.     Push-Relabel          |");
+            System.out.println("|  9. Parallel Push-Relabel     |");
+            System.out.println("| 10.  Boykov-Kolmogorov        |");
+            System.out.println("| 11.  Stoer-Wagner Min Cut     |");
+            System.out.println("| 12.  Min-Cost Max-Flow        |");
+            System.out.println("| 13.    Gomory-Hu Tree         |");
+            System.out.println("| 14.   Batch S-T Queries       |");
+            System.out.println("| 15.      Reduce Graph         |");
+            System.out.println("| 16.      Auto Select          |");
+            System.out.println("| 17.     Hopcroft-Karp         |");
+            System.out.println("| 18.  Unit-Capacity Dinic's    |");
+            System.out.println("| 19.     Save as Binary        |");
             System.out.println("---------------------------------");
             //OPTION CHOICE
             System.out.println("Which option do you want to do?");
@@ -192,23 +590,53 @@ public class Visualizer
                     //LOAD THE FILE
                     System.out.println("Type the name of the file to load:");
                     filename = scan.next();
-                    load(g, filename);
+                    g = load(g, filename);
+                    stats = new GraphStats(g);
+                    System.out.println(stats);
                     break;
                 //FORD-FULKERSON
                 case "2":
-                    runFF(a, g, filename);
+                    System.out.println("Use capacity scaling?");
+                    String scaling = scan.next();
+                    switch(scaling)
+                    {
+                        case "y":
+                        case "Y":
+                        case "yes":
+                        case "Yes":
+                            runFF(a, g, true);
+                            break;
+                        default:
+                            runFF(a, g, false);
+                            break;
+                    }
                     break;
                 //EDMONDS-KARP
                 case "3":
-                    runEK(a, g, filename);
+                    runEK(a, g);
                     break;
                 //KARGER'S MIN CUT
                 case "4":
-                    runK(a, g, filename);
+                    System.out.println("Target success probability for Karger-Stein? (0 for one contraction)");
+                    double probability;
+                    try
+                    {
+                        probability = Double.parseDouble(scan.next());
+                    }
+                    catch(NumberFormatException e)
+                    {
+                        probability = 0;
+                    }
+                    if(probability >= 1)
+                    {
+                        System.out.println("WARNING: Probability must be below 1. Using 0.99.");
+                        probability = 0.99;
+                    }
+                    runK(a, g, probability);
                     break;
                 //DINIC'S
                 case "5":
-                    runD(a, g, filename);
+                    runD(a, g);
                     break;
                 //ACTIVATE/DEACTIVATE TIMING MODE
                 case "6":
@@ -219,9 +647,99 @@ public class Visualizer
                 case "7":
                     ended = true;
                     break;
+                //PUSH-RELABEL
+                case "8":
+                    System.out.println("Use highest-label selection? (FIFO otherwise)");
+                    String selection = scan.next();
+                    switch(selection)
+                    {
+                        case "y":
+                        case "Y":
+                        case "yes":
+                        case "Yes":
+                            runPR(a, g, true);
+                            break;
+                        default:
+                            runPR(a, g, false);
+                            break;
+                    }
+                    break;
+                //PARALLEL PUSH-RELABEL
+                case "9":
+                    System.out.println("How many threads? (0 for one per core)");
+                    int threads;
+                    try
+                    {
+                        threads = Integer.parseInt(scan.next());
+                    }
+                    catch(NumberFormatException e)
+                    {
+                        threads = 0;
+                    }
+                    if(threads <= 0)
+                    {
+                        threads = Runtime.getRuntime().availableProcessors();
+                    }
+                    runPPR(a, g, threads);
+                    break;
+                //BOYKOV-KOLMOGOROV
+                case "10":
+                    runBK(a, g);
+                    break;
+                //STOER-WAGNER MIN CUT
+                case "11":
+                    runSW(a, g);
+                    break;
+                //MIN-COST MAX-FLOW
+                case "12":
+                    runMC(a, g);
+                    break;
+                //GOMORY-HU TREE
+                case "13":
+                    System.out.println("How many threads? (0 for one per core)");
+                    int treeThreads;
+                    try
+                    {
+                        treeThreads = Integer.parseInt(scan.next());
+                    }
+                    catch(NumberFormatException e)
+                    {
+                        treeThreads = 0;
+                    }
+                    if(treeThreads <= 0)
+                    {
+                        treeThreads = Runtime.getRuntime().availableProcessors();
+                    }
+                    runGH(a, g, treeThreads, scan);
+                    break;
+                //BATCH S-T QUERIES
+                case "14":
+                    runQ(a, g, scan);
+                    break;
+                //REDUCE GRAPH
+                case "15":
+                    g = runR(a, g);
+                    stats = new GraphStats(g);
+                    break;
+                //AUTO SELECT
+                case "16":
+                    runA(a, g, stats);
+                    break;
+                //HOPCROFT-KARP
+                case "17":
+                    runHK(a, g);
+                    break;
+                //UNIT-CAPACITY DINIC'S
+                case "18":
+                    runUD(a, g);
+                    break;
+                //SAVE AS BINARY
+                case "19":
+                    runS(g, scan);
+                    break;
                 //INVALID
                 default:
-                    System.out.println("INVALID. Please choose a number 1-7.");
+                    System.out.println("INVALID. Please choose a number 1-19.");
                     break;
             }
         }